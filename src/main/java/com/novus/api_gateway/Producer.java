@@ -1,62 +1,346 @@
 package com.novus.api_gateway;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.prometheus.KafkaMetrics;
+import com.novus.api_gateway.service.ClientIpResolver;
+import com.novus.api_gateway.service.EventPrincipalProjector;
+import com.novus.api_gateway.service.EventPrincipalProjector.Projection;
+import com.novus.api_gateway.service.KafkaEventSerializer;
+import com.novus.api_gateway.service.KafkaEventSpool;
+import com.novus.api_gateway.service.KafkaPartitionKeyResolver;
+import com.novus.api_gateway.service.PrincipalCache;
+import com.novus.api_gateway.service.TelemetryAggregator;
+import com.novus.api_gateway.service.TelemetryAggregator.SummaryEvent;
+import com.novus.api_gateway.service.TokenRevocationService;
+import com.novus.api_gateway.utils.EventDispatchQueue;
+import com.novus.api_gateway.utils.EventHeaders;
+import com.novus.api_gateway.utils.OverflowPolicy;
 import com.novus.shared_models.common.Kafka.KafkaMessage;
 import com.novus.shared_models.common.User.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Objects.isNull;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class Producer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private static final int PRINCIPAL_SIZE_SAMPLE_RATE = 64;
+    private static final long DISPATCH_DRAIN_TIMEOUT_MS = 5000;
+    private static final String COMMAND_LANE = "command";
+    private static final String TELEMETRY_LANE = "telemetry";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    @Qualifier("telemetryKafkaTemplate")
+    private final KafkaTemplate<String, byte[]> telemetryKafkaTemplate;
+    private final KafkaEventSerializer kafkaEventSerializer;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final ClientIpResolver clientIpResolver;
+    private final KafkaPartitionKeyResolver kafkaPartitionKeyResolver;
+    private final KafkaMetrics kafkaMetrics;
+    private final EnvConfiguration envConfiguration;
+    private final EventPrincipalProjector eventPrincipalProjector;
+    private final KafkaEventSpool kafkaEventSpool;
+    private final TelemetryAggregator telemetryAggregator;
+    private final Map<String, Integer> partitionCounts = new ConcurrentHashMap<>();
+
+    private EventDispatchQueue<PendingEvent> dispatchQueue;
+    private Map<String, OverflowPolicy> overflowPolicies;
+    private OverflowPolicy defaultOverflowPolicy;
+    private Set<String> telemetryOperations;
+
+    @PostConstruct
+    public void startDispatcher() {
+        overflowPolicies = buildOverflowPolicies(envConfiguration.getKafkaOverflowPolicies());
+        defaultOverflowPolicy = OverflowPolicy.valueOf(envConfiguration.getKafkaDefaultOverflowPolicy().trim().toUpperCase());
+        telemetryOperations = buildTelemetryOperations(envConfiguration.getKafkaTelemetryOperations(),
+                envConfiguration.getKafkaRawEventOperations());
+
+        dispatchQueue = new EventDispatchQueue<>("kafka-event-sender",
+                envConfiguration.getKafkaDispatchQueueCapacity(),
+                envConfiguration.getKafkaDispatchSenderThreads(),
+                this::publish,
+                kafkaMetrics::recordDispatchHandoff);
+        kafkaMetrics.registerDispatchQueueDepth(dispatchQueue, EventDispatchQueue::depth);
+    }
+
+    @PreDestroy
+    public void stopDispatcher() {
+        publishTelemetrySummaries();
+        dispatchQueue.shutdown(DISPATCH_DRAIN_TIMEOUT_MS, this::spoolLeftover);
+    }
+
+    @Scheduled(fixedRateString = "${supmap.properties.kafka-telemetry-aggregation-window-ms:10000}")
+    public void publishTelemetrySummaries() {
+        for (SummaryEvent summary : telemetryAggregator.drain()) {
+            kafkaMetrics.recordAggregationWindow(summary.topic(), summary.operation(), summary.eventCount());
+            if (!dispatchQueue.offer(new PendingEvent(summary.kafkaMessage(), summary.topic(), summary.operation(), null, true),
+                    ThreadLocalRandom.current().nextInt())) {
+                kafkaMetrics.recordAggregationSummaryDropped(summary.topic(), summary.operation());
+                log.warn("🔄 Event dispatch queue full, dropping {} event for topic: {}", summary.operation(), summary.topic());
+            }
+        }
+    }
+
+    public void send(KafkaMessage kafkaMessage, String topic, String operation) {
+        principalCache.invalidateForEvent(kafkaMessage, operation);
+        tokenRevocationService.revokeForEvent(kafkaMessage, operation);
+
+        if (telemetryAggregator.aggregate(kafkaMessage, topic, operation)) {
+            return;
+        }
+
+        String key = kafkaPartitionKeyResolver.resolve(kafkaMessage, operation);
+        PendingEvent event = new PendingEvent(kafkaMessage, topic, operation, key, false);
+
+        if (!dispatchQueue.offer(event, isNull(key) ? ThreadLocalRandom.current().nextInt() : key.hashCode())) {
+            handleOverflow(event);
+        }
+    }
+
+    private void handleOverflow(PendingEvent event) {
+        OverflowPolicy policy = overflowPolicies.getOrDefault(event.operation(), defaultOverflowPolicy);
+        kafkaMetrics.recordDispatchOverflow(event.topic(), policy.name());
+
+        switch (policy) {
+            case DROP -> log.warn("🔄 Event dispatch queue full, dropping {} event for topic: {}", event.operation(), event.topic());
+            case SPILL -> spill(event);
+            case FAIL_FAST -> throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "The service is temporarily overloaded. Please try again in a few moments.");
+        }
+    }
+
+    private void spill(PendingEvent event) {
+        ProducerRecord<String, byte[]> record = buildRecord(event);
+        if (!isNull(record) && !kafkaEventSpool.spool(record)) {
+            sendRecord(record);
+        }
+    }
+
+    private void spoolLeftover(PendingEvent event) {
+        ProducerRecord<String, byte[]> record = buildRecord(event);
+        if (isNull(record)) {
+            return;
+        }
+
+        if (isTelemetry(event)) {
+            sendTelemetryRecord(record);
+        } else if (!kafkaEventSpool.spool(record)) {
+            log.warn("🔄 Could not spool queued {} event for topic: {} at shutdown, it is lost", event.operation(), event.topic());
+        }
+    }
+
+    private void publish(PendingEvent event) {
+        ProducerRecord<String, byte[]> record = buildRecord(event);
+        if (isNull(record)) {
+            return;
+        }
+
+        resolvePartitionCount(record.topic());
+        if (isTelemetry(event)) {
+            sendTelemetryRecord(record);
+            return;
+        }
+
+        if (kafkaEventSpool.hasPending() && kafkaEventSpool.spool(record)) {
+            return;
+        }
+
+        sendRecord(record);
+    }
+
+    private boolean isTelemetry(PendingEvent event) {
+        return event.telemetry() || telemetryOperations.contains(event.operation());
+    }
+
+    private ProducerRecord<String, byte[]> buildRecord(PendingEvent event) {
+        KafkaMessage kafkaMessage = event.kafkaMessage();
+        String operation = event.operation();
 
-    public void send(KafkaMessage kafkaMessage, String topic, String key) {
         try {
-            String messageJson = objectMapper.writeValueAsString(kafkaMessage);
-
-            CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(topic, key, messageJson);
-
-            future.whenComplete((result, exception) -> {
-                if (exception == null) {
-                    log.info("Message sent successfully to topic: {}, partition: {}, offset: {}, with key: {}",
-                            result.getRecordMetadata().topic(),
-                            result.getRecordMetadata().partition(),
-                            result.getRecordMetadata().offset(),
-                            key);
-                } else {
-                    log.error("Error while sending message asynchronously: {}", exception.getMessage(), exception);
-                }
-            });
+            Projection projection = eventPrincipalProjector.projectionFor(operation);
+            User principal = eventPrincipalProjector.project(kafkaMessage.getAuthenticatedUser(), projection);
+            KafkaMessage projectedMessage = principal == kafkaMessage.getAuthenticatedUser() ? kafkaMessage : KafkaMessage.builder()
+                    .authenticatedUser(principal)
+                    .ipAddress(kafkaMessage.getIpAddress())
+                    .request(kafkaMessage.getRequest())
+                    .timeStamp(kafkaMessage.getTimeStamp())
+                    .build();
+
+            boolean writesEnvelope = envConfiguration.isKafkaEnvelopeCompatEnabled();
+            byte[] message = kafkaEventSerializer.serialize(writesEnvelope ? projectedMessage : toEventBody(projectedMessage));
+            recordEventSize(event.topic(), projection, kafkaMessage.getAuthenticatedUser(), principal, message);
+
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.topic(), event.key(), message);
+            record.headers().add(EventHeaders.CONTENT_TYPE, kafkaEventSerializer.getContentType());
+            EventHeaders.write(record.headers(),
+                    writesEnvelope ? EventHeaders.ENVELOPE_SCHEMA_VERSION : EventHeaders.HEADER_METADATA_SCHEMA_VERSION,
+                    operation,
+                    isNull(kafkaMessage.getAuthenticatedUser()) ? null : kafkaMessage.getAuthenticatedUser().getId(),
+                    kafkaMessage.getIpAddress(),
+                    Long.parseLong(kafkaMessage.getTimeStamp()));
+            return record;
         } catch (Exception exception) {
             log.error("Error while preparing message: {}", exception.getMessage(), exception);
+            return null;
         }
     }
 
+    private void sendRecord(ProducerRecord<String, byte[]> record) {
+        long startTime = System.nanoTime();
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (Exception exception) {
+            kafkaMetrics.recordSend(COMMAND_LANE, record.topic(), startTime, false);
+            log.error("Error while sending message, spooling it: {}", exception.getMessage());
+            kafkaEventSpool.spool(record);
+            return;
+        }
+
+        future.whenComplete((result, exception) -> {
+            kafkaMetrics.recordSend(COMMAND_LANE, record.topic(), startTime, exception == null);
+            if (exception == null) {
+                logSent(result, record);
+            } else {
+                log.error("Error while sending message asynchronously, spooling it: {}", exception.getMessage(), exception);
+                kafkaEventSpool.spoolAsync(record);
+            }
+        });
+    }
+
+    private void sendTelemetryRecord(ProducerRecord<String, byte[]> record) {
+        long startTime = System.nanoTime();
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = telemetryKafkaTemplate.send(record);
+        } catch (Exception exception) {
+            kafkaMetrics.recordSend(TELEMETRY_LANE, record.topic(), startTime, false);
+            log.warn("Error while sending telemetry message, dropping it: {}", exception.getMessage());
+            return;
+        }
+
+        future.whenComplete((result, exception) -> {
+            kafkaMetrics.recordSend(TELEMETRY_LANE, record.topic(), startTime, exception == null);
+            if (exception == null) {
+                logSent(result, record);
+            } else {
+                log.warn("Error while sending telemetry message asynchronously, dropping it: {}", exception.getMessage());
+            }
+        });
+    }
+
+    private void logSent(SendResult<String, byte[]> result, ProducerRecord<String, byte[]> record) {
+        kafkaMetrics.recordPartition(result.getRecordMetadata().topic(), result.getRecordMetadata().partition(),
+                partitionCounts.getOrDefault(result.getRecordMetadata().topic(), 0));
+        log.info("Message sent successfully to topic: {}, partition: {}, offset: {}, with key: {}",
+                result.getRecordMetadata().topic(),
+                result.getRecordMetadata().partition(),
+                result.getRecordMetadata().offset(),
+                record.key());
+    }
+
+    private void resolvePartitionCount(String topic) {
+        if (partitionCounts.containsKey(topic)) {
+            return;
+        }
+
+        int partitionCount = 0;
+        try {
+            partitionCount = kafkaTemplate.partitionsFor(topic).size();
+        } catch (Exception exception) {
+            log.warn("Could not resolve the partition count of topic {}, skew will use the partitions seen so far: {}",
+                    topic, exception.getMessage());
+        }
+        partitionCounts.put(topic, partitionCount);
+    }
+
+    private void recordEventSize(String topic, Projection projection, User user, User principal, byte[] message) {
+        kafkaMetrics.recordEventSize(topic, projection.name(), message.length);
+
+        if (principal == user || ThreadLocalRandom.current().nextInt(PRINCIPAL_SIZE_SAMPLE_RATE) != 0) {
+            return;
+        }
+
+        try {
+            int bytesSaved = kafkaEventSerializer.serialize(user).length - kafkaEventSerializer.serialize(principal).length;
+            kafkaMetrics.recordPrincipalBytesSaved(topic, projection.name(), bytesSaved);
+        } catch (Exception exception) {
+            log.debug("Could not measure principal projection size: {}", exception.getMessage());
+        }
+    }
+
+    private Map<String, Object> toEventBody(KafkaMessage kafkaMessage) {
+        Map<String, Object> eventBody = new LinkedHashMap<>();
+        eventBody.put("authenticatedUser", kafkaMessage.getAuthenticatedUser());
+        eventBody.put("request", kafkaMessage.getRequest());
+        return eventBody;
+    }
+
+    private Set<String> buildTelemetryOperations(List<String> configuredOperations, List<String> rawEventOperations) {
+        if (isNull(configuredOperations)) {
+            return Set.of();
+        }
+
+        Set<String> operations = new HashSet<>();
+        configuredOperations.forEach(operation -> operations.add(operation.trim()));
+        if (!isNull(rawEventOperations)) {
+            rawEventOperations.forEach(operation -> operations.remove(operation.trim()));
+        }
+        return Set.copyOf(operations);
+    }
+
+    private Map<String, OverflowPolicy> buildOverflowPolicies(List<String> configuredPolicies) {
+        Map<String, OverflowPolicy> policies = new HashMap<>();
+        if (isNull(configuredPolicies)) {
+            return policies;
+        }
+
+        for (String configuredPolicy : configuredPolicies) {
+            int separatorIndex = configuredPolicy.indexOf('=');
+            if (separatorIndex < 0) {
+                throw new IllegalStateException("Invalid overflow policy, expected 'operation=FAIL_FAST|DROP|SPILL': " + configuredPolicy);
+            }
+
+            policies.put(configuredPolicy.substring(0, separatorIndex).trim(),
+                    OverflowPolicy.valueOf(configuredPolicy.substring(separatorIndex + 1).trim().toUpperCase()));
+        }
+        return policies;
+    }
+
     public KafkaMessage buildKafkaMessage(User authenticatedUser, HttpServletRequest httpServletRequest, Map<String, String> request) {
         return KafkaMessage.builder()
                 .authenticatedUser(authenticatedUser)
-                .ipAddress(getClientIP(httpServletRequest))
+                .ipAddress(clientIpResolver.resolve(httpServletRequest))
                 .request(request)
                 .timeStamp(String.valueOf(System.currentTimeMillis()))
                 .build();
     }
 
-    private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null || xfHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0];
+    private record PendingEvent(KafkaMessage kafkaMessage, String topic, String operation, String key, boolean telemetry) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.novus.api_gateway.configuration;
+
+import com.novus.api_gateway.prometheus.SecurityMetrics;
+import com.novus.api_gateway.service.ClientIpResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class ClientIpFilter extends OncePerRequestFilter {
+
+    private final ClientIpResolver clientIpResolver;
+    private final SecurityMetrics securityMetrics;
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain filterChain)
+            throws ServletException, IOException {
+        long startTime = System.nanoTime();
+        String clientIp = clientIpResolver.resolve(request);
+        boolean isDenied = clientIpResolver.isDenied(clientIp);
+        securityMetrics.recordPipelineStage(securityMetrics.getIpResolutionStageTimer(), startTime);
+
+        if (isDenied) {
+            securityMetrics.getDeniedClientCounter().increment();
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied.");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+}
@@ -8,7 +8,11 @@ import java.util.Date;
 public class DateConfiguration {
 
     public Date newDate() {
-        return new Date(System.currentTimeMillis() + 7200000);
+        return toDate(System.currentTimeMillis());
+    }
+
+    public Date toDate(long epochMillis) {
+        return new Date(epochMillis + 7200000);
     }
 
 }
\ No newline at end of file
@@ -2,57 +2,233 @@ package com.novus.api_gateway.configuration;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch.indices.CreateIndexResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.io.StringReader;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class ElasticsearchInitializer implements CommandLineRunner {
+public class ElasticsearchInitializer {
+
+    public static final String API_LOGS_WRITE_ALIAS = "api_logs_write";
+
+    private static final String API_LOGS_READ_ALIAS = "api_logs_read";
+    private static final String API_LOGS_LEGACY_INDEX = "api_logs";
+    private static final String API_LOGS_LIFECYCLE_POLICY = "api_logs_policy";
+    private static final String API_LOGS_INDEX_TEMPLATE = "api_logs_template";
+    private static final String API_LOGS_BOOTSTRAP_INDEX = "api_logs-000001";
+    private static final long RETRY_INTERVAL_MS = 5000;
 
     private final ElasticsearchClient elasticsearchClient;
+    private final EnvConfiguration envConfiguration;
+    private final ScheduledExecutorService retrier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "elasticsearch-initializer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean initialized;
+
+    @PostConstruct
+    public void initialize() {
+        if (initializeIndices()) {
+            retrier.shutdown();
+            return;
+        }
+
+        log.warn("Elasticsearch indices not initialized, retrying every " + RETRY_INTERVAL_MS + " ms");
+        retrier.scheduleWithFixedDelay(() -> {
+            if (initializeIndices()) {
+                log.info("Elasticsearch indices initialized");
+                retrier.shutdown();
+            }
+        }, RETRY_INTERVAL_MS, RETRY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        retrier.shutdownNow();
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
 
-    @Override
-    public void run(String... args) {
-        createIndexIfNotExists(createApiLogsMapping());
+    private boolean initializeIndices() {
+        initialized = initializeApiLogs() && createIndexIfNotExists("api_rollups", createApiRollupsMapping());
+        return initialized;
     }
 
-    private void createIndexIfNotExists(String mapping) {
+    private boolean initializeApiLogs() {
+        try {
+            elasticsearchClient.ilm().putLifecycle(p -> p
+                    .name(API_LOGS_LIFECYCLE_POLICY)
+                    .withJson(new StringReader(createApiLogsLifecyclePolicy()))
+            );
+            log.info("Lifecycle policy " + API_LOGS_LIFECYCLE_POLICY + " updated");
+
+            elasticsearchClient.indices().putIndexTemplate(t -> t
+                    .name(API_LOGS_INDEX_TEMPLATE)
+                    .withJson(new StringReader(createApiLogsIndexTemplate()))
+            );
+            log.info("Index template " + API_LOGS_INDEX_TEMPLATE + " updated");
+
+            boolean writeAliasExists = elasticsearchClient.indices().existsAlias(e -> e
+                    .name(API_LOGS_WRITE_ALIAS)
+            ).value();
+
+            if (!writeAliasExists) {
+                CreateIndexResponse createResponse = elasticsearchClient.indices().create(c -> c
+                        .index(API_LOGS_BOOTSTRAP_INDEX)
+                        .aliases(API_LOGS_WRITE_ALIAS, a -> a.isWriteIndex(true))
+                );
+
+                log.info("Index " + API_LOGS_BOOTSTRAP_INDEX + " created: " + createResponse.acknowledged());
+            } else {
+                log.warn("Alias " + API_LOGS_WRITE_ALIAS + " already exists");
+            }
+
+            attachLegacyApiLogsIndex();
+            return true;
+        } catch (Exception e) {
+            log.error("Error initializing api_logs indices: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void attachLegacyApiLogsIndex() throws IOException {
+        boolean legacyIndexExists = elasticsearchClient.indices().exists(e -> e
+                .index(API_LOGS_LEGACY_INDEX)
+        ).value();
+
+        if (legacyIndexExists) {
+            elasticsearchClient.indices().updateAliases(u -> u
+                    .actions(a -> a.add(add -> add.index(API_LOGS_LEGACY_INDEX).alias(API_LOGS_READ_ALIAS)))
+            );
+            log.info("Index " + API_LOGS_LEGACY_INDEX + " attached to alias " + API_LOGS_READ_ALIAS);
+        }
+    }
+
+    private boolean createIndexIfNotExists(String index, String mapping) {
         try {
             boolean indexExists = elasticsearchClient.indices().exists(e -> e
-                    .index("api_logs")
+                    .index(index)
             ).value();
 
             if (!indexExists) {
                 CreateIndexResponse createResponse = elasticsearchClient.indices().create(c -> c
-                        .index("api_logs")
+                        .index(index)
                         .withJson(new StringReader(mapping))
                 );
 
-                log.info("Index api_logs created: " + createResponse.acknowledged());
+                log.info("Index " + index + " created: " + createResponse.acknowledged());
             } else {
-                log.warn("Index api_logs already exists");
+                log.warn("Index " + index + " already exists");
             }
+            return true;
         } catch (Exception e) {
-            log.error("Error creating index api_logs: " + e.getMessage());
+            log.error("Error creating index " + index + ": " + e.getMessage());
+            return false;
         }
     }
 
-    private String createApiLogsMapping() {
+    private String createApiLogsLifecyclePolicy() {
+        return """
+                {
+                  "policy": {
+                    "phases": {
+                      "hot": {
+                        "min_age": "0ms",
+                        "actions": {
+                          "rollover": {
+                            "max_age": "%s",
+                            "max_primary_shard_size": "%s"
+                          }
+                        }
+                      },
+                      "warm": {
+                        "min_age": "0ms",
+                        "actions": {
+                          "readonly": {},
+                          "forcemerge": { "max_num_segments": 1 }
+                        }
+                      },
+                      "delete": {
+                        "min_age": "%s",
+                        "actions": {
+                          "delete": {}
+                        }
+                      }
+                    }
+                  }
+                }
+                """.formatted(envConfiguration.getApiLogsRolloverMaxAge(),
+                envConfiguration.getApiLogsRolloverMaxPrimaryShardSize(), envConfiguration.getApiLogsRetention());
+    }
+
+    private String createApiLogsIndexTemplate() {
+        return """
+                {
+                  "index_patterns": ["api_logs-*"],
+                  "priority": 200,
+                  "template": {
+                    "settings": {
+                      "index.lifecycle.name": "%s",
+                      "index.lifecycle.rollover_alias": "%s"
+                    },
+                    "aliases": {
+                      "%s": {}
+                    },
+                    "mappings": {
+                      "properties": {
+                        "timestamp": { "type": "date" },
+                        "service": { "type": "keyword" },
+                        "endpoint": { "type": "keyword" },
+                        "path": { "type": "keyword", "index": false, "doc_values": false },
+                        "method": { "type": "keyword" },
+                        "status_code": { "type": "integer" },
+                        "response_time_ms": { "type": "long" },
+                        "sampling_weight": { "type": "double" },
+                        "error": { "type": "keyword" }
+                      }
+                    }
+                  }
+                }
+                """.formatted(API_LOGS_LIFECYCLE_POLICY, API_LOGS_WRITE_ALIAS, API_LOGS_READ_ALIAS);
+    }
+
+    private String createApiRollupsMapping() {
         return """
                 {
                   "mappings": {
                     "properties": {
                       "timestamp": { "type": "date" },
                       "service": { "type": "keyword" },
-                      "endpoint": { "type": "keyword" },
+                      "route": { "type": "keyword" },
                       "method": { "type": "keyword" },
-                      "status_code": { "type": "integer" },
-                      "response_time_ms": { "type": "long" }
+                      "request_count": { "type": "long" },
+                      "status_2xx": { "type": "long" },
+                      "status_3xx": { "type": "long" },
+                      "status_4xx": { "type": "long" },
+                      "status_5xx": { "type": "long" },
+                      "status_other": { "type": "long" },
+                      "response_time_sum_ms": { "type": "long" },
+                      "response_time_mean_ms": { "type": "double" },
+                      "response_time_p50_ms": { "type": "long" },
+                      "response_time_p90_ms": { "type": "long" },
+                      "response_time_p95_ms": { "type": "long" },
+                      "response_time_p99_ms": { "type": "long" },
+                      "response_time_max_ms": { "type": "long" },
+                      "response_time_histogram": { "type": "binary" }
                     }
                   }
                 }
@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
 
 @Getter
@@ -17,6 +18,23 @@ public class EnvConfiguration {
     private String elasticsearchPassword;
     private String elasticsearchUrl;
     private String elasticsearchUsername;
+    private int elasticsearchBulkQueueCapacity;
+    private int elasticsearchBulkMaxActions;
+    private long elasticsearchBulkFlushIntervalMs;
+    private String elasticsearchBulkDropPolicy;
+    private boolean elasticsearchOverflowEnabled;
+    private String elasticsearchOverflowDirectory;
+    private int elasticsearchOverflowSegmentSizeBytes;
+    private long elasticsearchOverflowMaxSizeBytes;
+    private int elasticsearchOverflowReplayRatePerSecond;
+    private boolean apiLogsRawEnabled;
+    private boolean apiRollupsEnabled;
+    private double apiLogsSampleRate;
+    private long apiLogsSlowThresholdMs;
+    private List<String> apiLogsSlowThresholds;
+    private String apiLogsRolloverMaxAge;
+    private String apiLogsRolloverMaxPrimaryShardSize;
+    private String apiLogsRetention;
     private String jwtSecret;
     private String kafkaBootstrapServers;
     private String mongoUri;
@@ -25,6 +43,48 @@ public class EnvConfiguration {
     private String cloudinaryCloudName;
     private String cloudinaryApiSecret;
     private String qrCodeApiUrl;
+    private int principalCacheMaxSize;
+    private long principalCacheMaxStalenessMs;
+    private long principalCacheInvalidationHoldMs;
+    private boolean jwtSelfContainedEnabled;
+    private List<String> jwtClaimsOnlyRoutes;
+    private long jwtRevocationSyncIntervalMs;
+    private int rateLimitTableCapacity;
+    private int rateLimitAnonymousMaxRequests;
+    private int rateLimitCredentialedMaxRequests;
+    private int rateLimitAuthenticatedMaxRequests;
+    private List<String> rateLimitRouteCosts;
+    private int heavyHitterTopSize;
+    private List<String> trustedProxyCidrs;
+    private List<String> deniedClientCidrs;
+    private String kafkaPartitionKeyStrategy;
+    private boolean kafkaEnvelopeCompatEnabled;
+    private List<String> kafkaPrincipalProjections;
+    private String kafkaEventFormat;
+    private int kafkaDispatchQueueCapacity;
+    private int kafkaDispatchSenderThreads;
+    private String kafkaDefaultOverflowPolicy;
+    private List<String> kafkaOverflowPolicies;
+    private boolean kafkaSpoolEnabled;
+    private String kafkaSpoolDirectory;
+    private int kafkaSpoolSegmentSizeBytes;
+    private long kafkaSpoolMaxSizeBytes;
+    private List<String> kafkaTelemetryOperations;
+    private String kafkaTelemetryAcks;
+    private String kafkaTelemetryCompressionType;
+    private int kafkaTelemetryLingerMs;
+    private int kafkaTelemetryBatchSizeBytes;
+    private long kafkaTelemetryBufferMemoryBytes;
+    private boolean kafkaTelemetryAggregationEnabled;
+    private long kafkaTelemetryAggregationWindowMs;
+    private List<String> kafkaRawEventOperations;
+    private boolean locationCoalescingEnabled;
+    private long locationCoalescingWindowMs;
+    private double locationCoalescingMinDistanceMeters;
+    private int locationCoalescingTableCapacity;
+    private String rateLimitMode;
+    private String rateLimitClusterBackend;
+    private long rateLimitClusterFlushIntervalMs;
     public Map<String, String> getCloudinaryConfig() {
         return Map.of(
                 "cloud_name", cloudinaryCloudName,
@@ -1,18 +1,24 @@
 package com.novus.api_gateway.configuration;
 
 import com.novus.api_gateway.dao.UserDaoUtils;
+import com.novus.api_gateway.prometheus.SecurityMetrics;
 import com.novus.api_gateway.service.JwtTokenService;
+import com.novus.api_gateway.service.PrincipalCache;
+import com.novus.api_gateway.service.TokenRevocationService;
+import com.novus.api_gateway.service.VerifiedToken;
 import com.novus.shared_models.common.User.User;
+import com.novus.shared_models.common.User.UserRole;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -23,21 +29,32 @@ import java.util.Objects;
 import java.util.Optional;
 
 @Component
-@AllArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
     private final UserDaoUtils userDaoUtils;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final EnvConfiguration envConfiguration;
+    private final SecurityMetrics securityMetrics;
+    private final List<RequestMatcher> claimsOnlyRouteMatchers;
+
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, UserDaoUtils userDaoUtils, PrincipalCache principalCache,
+                                   TokenRevocationService tokenRevocationService, EnvConfiguration envConfiguration,
+                                   SecurityMetrics securityMetrics) {
+        this.jwtTokenService = jwtTokenService;
+        this.userDaoUtils = userDaoUtils;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.envConfiguration = envConfiguration;
+        this.securityMetrics = securityMetrics;
+        this.claimsOnlyRouteMatchers = buildClaimsOnlyRouteMatchers(envConfiguration.getJwtClaimsOnlyRoutes());
+    }
 
     @Override
     protected void doFilterInternal(@NotNull HttpServletRequest request,
                                     @NotNull HttpServletResponse response,
                                     @NotNull FilterChain filterChain) throws ServletException, IOException {
-        if (isNotPrivateRoute(request.getRequestURI())) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
         Authentication userInformations = getUserInformations(request);
         if (Objects.isNull(userInformations)) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "You must be authenticated to perform this action.");
@@ -49,23 +66,83 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     private Authentication getUserInformations(HttpServletRequest request) {
-        String userId = jwtTokenService.resolveUserIdFromRequest(request);
-        if (Objects.isNull(userId)) {
+        VerifiedToken verifiedToken = jwtTokenService.resolveVerifiedToken(request);
+
+        if (Objects.isNull(verifiedToken) || Objects.isNull(verifiedToken.getUserId())) {
             return null;
         }
 
-        Optional<User> optionalUser = userDaoUtils.findById(userId);
+        long resolutionStartTime = System.nanoTime();
+        Authentication authentication = resolvePrincipal(verifiedToken, request);
+        securityMetrics.recordPipelineStage(securityMetrics.getPrincipalResolutionStageTimer(), resolutionStartTime);
+
+        return authentication;
+    }
+
+    private Authentication resolvePrincipal(VerifiedToken verifiedToken, HttpServletRequest request) {
+        if (canAuthenticateFromClaims(verifiedToken, request)) {
+            return buildAuthentication(buildUserFromClaims(verifiedToken));
+        }
+
+        Optional<User> optionalUser = principalCache.get(verifiedToken.getUserId());
+        if (optionalUser.isEmpty()) {
+            optionalUser = userDaoUtils.findById(verifiedToken.getUserId());
+            optionalUser.ifPresent(principalCache::put);
+        }
 
         return optionalUser.map(this::buildAuthentication).orElse(null);
     }
 
+    private boolean canAuthenticateFromClaims(VerifiedToken verifiedToken, HttpServletRequest request) {
+        if (!envConfiguration.isJwtSelfContainedEnabled() || !verifiedToken.isSelfContained()) {
+            return false;
+        }
+
+        if (tokenRevocationService.isRevoked(verifiedToken.getUserId(), verifiedToken.getIssuedAt())) {
+            return false;
+        }
+
+        for (RequestMatcher claimsOnlyRouteMatcher : claimsOnlyRouteMatchers) {
+            if (claimsOnlyRouteMatcher.matches(request)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private User buildUserFromClaims(VerifiedToken verifiedToken) {
+        return User.builder()
+                .id(verifiedToken.getUserId())
+                .username(verifiedToken.getUsername())
+                .role(UserRole.valueOf(verifiedToken.getRole()))
+                .build();
+    }
+
     private Authentication buildAuthentication(User user) {
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(user.getRole().toString()));
         return new UsernamePasswordAuthenticationToken(user, null, authorities);
     }
 
-    private boolean isNotPrivateRoute(String uri) {
-        return !uri.startsWith("/private");
+    private List<RequestMatcher> buildClaimsOnlyRouteMatchers(List<String> claimsOnlyRoutes) {
+        if (Objects.isNull(claimsOnlyRoutes)) {
+            return List.of();
+        }
+
+        return claimsOnlyRoutes.stream()
+                .map(String::trim)
+                .filter(route -> !route.isEmpty())
+                .map(this::buildRouteMatcher)
+                .toList();
+    }
+
+    private RequestMatcher buildRouteMatcher(String route) {
+        int separatorIndex = route.indexOf(' ');
+        if (separatorIndex < 0) {
+            return new AntPathRequestMatcher(route);
+        }
+
+        return new AntPathRequestMatcher(route.substring(separatorIndex + 1).trim(), route.substring(0, separatorIndex));
     }
 
 }
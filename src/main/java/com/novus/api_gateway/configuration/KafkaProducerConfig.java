@@ -1,15 +1,21 @@
 package com.novus.api_gateway.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -17,13 +23,12 @@ import java.util.Map;
 public class KafkaProducerConfig {
 
     private final EnvConfiguration envConfiguration;
+    private final MeterRegistry meterRegistry;
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, envConfiguration.getKafkaBootstrapServers());
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    @Primary
+    public ProducerFactory<String, byte[]> producerFactory() {
+        Map<String, Object> configProps = buildCommonConfig();
 
         configProps.put(ProducerConfig.ACKS_CONFIG, "1");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
@@ -33,11 +38,47 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 32 * 1024);
         configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 64 * 1024 * 1024);
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return buildProducerFactory(configProps, "command");
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> telemetryProducerFactory() {
+        Map<String, Object> configProps = buildCommonConfig();
+
+        configProps.put(ProducerConfig.ACKS_CONFIG, envConfiguration.getKafkaTelemetryAcks());
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, envConfiguration.getKafkaTelemetryCompressionType());
+
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, envConfiguration.getKafkaTelemetryLingerMs());
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, envConfiguration.getKafkaTelemetryBatchSizeBytes());
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, envConfiguration.getKafkaTelemetryBufferMemoryBytes());
+
+        return buildProducerFactory(configProps, "telemetry");
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    @Primary
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> telemetryKafkaTemplate() {
+        return new KafkaTemplate<>(telemetryProducerFactory());
+    }
+
+    private Map<String, Object> buildCommonConfig() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, envConfiguration.getKafkaBootstrapServers());
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000);
+        return configProps;
+    }
+
+    private ProducerFactory<String, byte[]> buildProducerFactory(Map<String, Object> configProps, String lane) {
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(configProps);
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry, List.of(Tag.of("lane", lane))));
+        return producerFactory;
+    }
 }
\ No newline at end of file
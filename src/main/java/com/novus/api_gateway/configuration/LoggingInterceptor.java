@@ -1,17 +1,25 @@
 package com.novus.api_gateway.configuration;
 
 import com.novus.api_gateway.service.LoggingService;
+import com.novus.api_gateway.service.RouteRegistry;
+import com.novus.api_gateway.utils.RouteTrie.Route;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static java.util.Objects.isNull;
 
 @Component
 @RequiredArgsConstructor
 public class LoggingInterceptor implements HandlerInterceptor {
 
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
     private final LoggingService loggingService;
+    private final RouteRegistry routeRegistry;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
@@ -29,18 +37,22 @@ public class LoggingInterceptor implements HandlerInterceptor {
         String method = request.getMethod();
         int statusCode = response.getStatus();
 
-        String serviceName = determineService(path);
+        Route route = request.getAttribute(RouteRegistry.ROUTE_ATTRIBUTE) instanceof Route resolvedRoute
+                ? resolvedRoute
+                : routeRegistry.resolve(method, path);
+        String serviceName = isNull(route) ? RouteRegistry.GATEWAY_SERVICE : route.service();
+        String error = isNull(ex) ? null : ex.getClass().getSimpleName();
 
-        loggingService.logApiRequest(serviceName, path, method, statusCode, responseTime);
+        loggingService.logApiRequest(serviceName, resolveTemplate(request, route), path, method, statusCode, responseTime, error);
     }
 
-    private String determineService(String path) {
-        if (path.startsWith("/auth") || path.startsWith("/oauth")) return "authentication-service";
-        if (path.startsWith("/private/user") || path.startsWith("/private/admin/user") || path.startsWith("/protected/user")) return "user-service";
-        if (path.startsWith("/private/notification/preferences")) return "notification-service";
-        if (path.startsWith("/map") || path.startsWith("/private/map") || path.startsWith("/private/admin/map")) return "map-service";
-        if (path.startsWith("/contact") || path.startsWith("/private/admin/contact")) return "contact-service";
-        return "api-gateway";
+    private String resolveTemplate(HttpServletRequest request, Route route) {
+        if (!isNull(route)) {
+            return route.template();
+        }
+
+        Object bestMatchingPattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return isNull(bestMatchingPattern) ? UNMATCHED_ROUTE : bestMatchingPattern.toString();
     }
 
 }
@@ -0,0 +1,39 @@
+package com.novus.api_gateway.configuration;
+
+import com.novus.api_gateway.dao.MongoRateLimitBackend;
+import com.novus.api_gateway.dao.MongoTokenRevocationBackend;
+import com.novus.api_gateway.utils.InMemoryRateLimitBackend;
+import com.novus.api_gateway.utils.InMemoryTokenRevocationBackend;
+import com.novus.api_gateway.utils.RateLimitBackend;
+import com.novus.api_gateway.utils.TokenRevocationBackend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitConfiguration {
+
+    private static final String MONGO_BACKEND = "mongo";
+
+    private final EnvConfiguration envConfiguration;
+
+    @Bean
+    public RateLimitBackend rateLimitBackend(ObjectProvider<MongoTemplate> mongoTemplate) {
+        if (MONGO_BACKEND.equalsIgnoreCase(envConfiguration.getRateLimitClusterBackend())) {
+            return new MongoRateLimitBackend(mongoTemplate.getObject());
+        }
+        return new InMemoryRateLimitBackend();
+    }
+
+    @Bean
+    public TokenRevocationBackend tokenRevocationBackend(ObjectProvider<MongoTemplate> mongoTemplate) {
+        if (MONGO_BACKEND.equalsIgnoreCase(envConfiguration.getRateLimitClusterBackend())) {
+            return new MongoTokenRevocationBackend(mongoTemplate.getObject());
+        }
+        return new InMemoryTokenRevocationBackend();
+    }
+
+}
@@ -1,6 +1,13 @@
 package com.novus.api_gateway.configuration;
 
+import com.novus.api_gateway.prometheus.SecurityMetrics;
+import com.novus.api_gateway.service.ClientIpResolver;
+import com.novus.api_gateway.service.JwtTokenService;
+import com.novus.api_gateway.service.LoggingService;
 import com.novus.api_gateway.service.RateLimitingService;
+import com.novus.api_gateway.service.RouteRegistry;
+import com.novus.api_gateway.service.VerifiedToken;
+import com.novus.api_gateway.utils.RouteTrie.Route;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,27 +20,52 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
 
 @Component
 @RequiredArgsConstructor
 @EnableScheduling
 public class RateLimitingFilter extends OncePerRequestFilter {
 
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
     private final RateLimitingService rateLimitingService;
+    private final ClientIpResolver clientIpResolver;
+    private final JwtTokenService jwtTokenService;
+    private final SecurityMetrics securityMetrics;
+    private final LoggingService loggingService;
+    private final RouteRegistry routeRegistry;
 
     @Override
     protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull FilterChain filterChain)
             throws ServletException, IOException {
-        String ipAddress = getClientIP(request);
+        long requestStartTime = System.currentTimeMillis();
+        Route route = routeRegistry.resolve(request.getMethod(), request.getRequestURI());
+        request.setAttribute(RouteRegistry.ROUTE_ATTRIBUTE, route);
 
-        if (rateLimitingService.isIpBlocked(ipAddress)) {
-            rejectRequest(response);
-            return;
+        String ipAddress = clientIpResolver.resolve(request);
+        boolean presentsToken = jwtTokenService.hasBearerToken(request);
+
+        long startTime = System.nanoTime();
+        boolean isRateLimited = !rateLimitingService.tryAcquireClient(route, ipAddress, presentsToken);
+        long rateLimitingTime = System.nanoTime() - startTime;
+
+        if (!isRateLimited && presentsToken) {
+            long verificationStartTime = System.nanoTime();
+            VerifiedToken verifiedToken = jwtTokenService.resolveVerifiedToken(request);
+            securityMetrics.recordPipelineStage(securityMetrics.getTokenVerificationStageTimer(), verificationStartTime);
+
+            startTime = System.nanoTime();
+            isRateLimited = !rateLimitingService.tryAcquireToken(route, ipAddress, verifiedToken);
+            rateLimitingTime += System.nanoTime() - startTime;
         }
+        securityMetrics.getRateLimitingStageTimer().record(rateLimitingTime, TimeUnit.NANOSECONDS);
 
-        if (rateLimitingService.incrementAndCheckLimit(ipAddress)) {
-            rateLimitingService.blockIpAddress(ipAddress);
+        if (isRateLimited) {
             rejectRequest(response);
+            logRejectedRequest(request, route, requestStartTime);
             return;
         }
 
@@ -45,12 +77,11 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         response.getWriter().write("Too many requests. Please try again later.");
     }
 
-    private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0];
+    private void logRejectedRequest(HttpServletRequest request, Route route, long requestStartTime) {
+        String serviceName = isNull(route) ? RouteRegistry.GATEWAY_SERVICE : route.service();
+        String template = isNull(route) ? UNMATCHED_ROUTE : route.template();
+        loggingService.logApiRequest(serviceName, template, request.getRequestURI(), request.getMethod(),
+                HttpStatus.TOO_MANY_REQUESTS.value(), System.currentTimeMillis() - requestStartTime, null);
     }
 
 }
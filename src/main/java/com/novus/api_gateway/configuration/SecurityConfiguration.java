@@ -1,6 +1,8 @@
 package com.novus.api_gateway.configuration;
 
+import jakarta.servlet.Filter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -15,6 +17,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -27,8 +30,9 @@ import static org.springframework.security.config.Customizer.withDefaults;
 @EnableScheduling
 public class SecurityConfiguration {
 
-    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ClientIpFilter clientIpFilter;
     private final RateLimitingFilter rateLimitingFilter;
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final EnvConfiguration envConfiguration;
 
     @Bean
@@ -55,7 +59,9 @@ public class SecurityConfiguration {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/oauth/google-login").authenticated()
                 )
-                .oauth2Login(withDefaults());
+                .oauth2Login(withDefaults())
+                .addFilterBefore(clientIpFilter, DisableEncodeUrlFilter.class)
+                .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -64,10 +70,10 @@ public class SecurityConfiguration {
     @Order(2)
     public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
         http
-                .securityMatcher("/private/**", "/protected/**")
+                .securityMatcher("/private/**", "/protected/**", "/actuator/heavyhitters")
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/private/admin/**").hasAnyAuthority("SUPER_ADMIN", "ADMIN")
+                        .requestMatchers("/private/admin/**", "/actuator/heavyhitters").hasAnyAuthority("SUPER_ADMIN", "ADMIN")
                         .requestMatchers("/protected/**").hasAuthority("SUPER_ADMIN")
                         .requestMatchers("/private/**").authenticated()
                         .anyRequest().permitAll()
@@ -78,8 +84,9 @@ public class SecurityConfiguration {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
+                .addFilterBefore(clientIpFilter, DisableEncodeUrlFilter.class)
                 .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(jwtAuthenticationFilter, RateLimitingFilter.class)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()));
 
         return http.build();
@@ -99,11 +106,34 @@ public class SecurityConfiguration {
                         .xssProtection(xss -> xss.headerValue(XXssProtectionHeaderWriter.HeaderValue.ENABLED_MODE_BLOCK))
                         .contentSecurityPolicy(csp -> csp.policyDirectives("default-src 'self'"))
                 )
+                .addFilterBefore(clientIpFilter, DisableEncodeUrlFilter.class)
+                .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()));
 
         return http.build();
     }
 
+    @Bean
+    public FilterRegistrationBean<ClientIpFilter> clientIpFilterRegistration() {
+        return disabledServletRegistration(clientIpFilter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitingFilter> rateLimitingFilterRegistration() {
+        return disabledServletRegistration(rateLimitingFilter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+        return disabledServletRegistration(jwtAuthenticationFilter);
+    }
+
+    private <T extends Filter> FilterRegistrationBean<T> disabledServletRegistration(T filter) {
+        FilterRegistrationBean<T> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,63 @@
+package com.novus.api_gateway.dao;
+
+import com.novus.api_gateway.utils.RateLimitBackend;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MongoRateLimitBackend implements RateLimitBackend {
+
+    private static final String COLLECTION_NAME = "rate_limit_counters";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoRateLimitBackend(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoTemplate.indexOps(COLLECTION_NAME).ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(0));
+    }
+
+    @Override
+    public long[] addAndGet(long[] keys, long[] windows, long[] deltas, int count, long windowDuration) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION_NAME);
+        List<String> counterIds = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String counterId = windows[i] + ":" + Long.toHexString(keys[i]);
+            counterIds.add(counterId);
+
+            bulkOperations.upsert(
+                    Query.query(Criteria.where("_id").is(counterId)),
+                    new Update()
+                            .inc("count", deltas[i])
+                            .setOnInsert("expiresAt", new Date((windows[i] + 2) * windowDuration))
+            );
+        }
+        bulkOperations.execute();
+
+        Query totalsQuery = Query.query(Criteria.where("_id").in(counterIds));
+        totalsQuery.fields().include("count");
+
+        Map<String, Long> totalsById = new HashMap<>();
+        for (Document counter : mongoTemplate.find(totalsQuery, Document.class, COLLECTION_NAME)) {
+            totalsById.put(counter.getString("_id"), ((Number) counter.get("count")).longValue());
+        }
+
+        long[] totals = new long[count];
+        for (int i = 0; i < count; i++) {
+            totals[i] = totalsById.getOrDefault(counterIds.get(i), deltas[i]);
+        }
+        return totals;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.novus.api_gateway.dao;
+
+import com.novus.api_gateway.utils.TokenRevocationBackend;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+public class MongoTokenRevocationBackend implements TokenRevocationBackend {
+
+    private static final String COLLECTION_NAME = "token_revocations";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoTokenRevocationBackend(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoTemplate.indexOps(COLLECTION_NAME).ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(0));
+        this.mongoTemplate.indexOps(COLLECTION_NAME).ensureIndex(new Index().on("revokedBefore", Sort.Direction.ASC));
+    }
+
+    @Override
+    public void revoke(String userId, long revokedBefore, long expiresAt) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update()
+                        .max("revokedBefore", revokedBefore)
+                        .max("expiresAt", new Date(expiresAt)),
+                COLLECTION_NAME
+        );
+    }
+
+    @Override
+    public Map<String, Long> revokedSince(long since) {
+        Query query = Query.query(Criteria.where("revokedBefore").gte(since));
+        query.fields().include("revokedBefore");
+
+        Map<String, Long> revokedSince = new HashMap<>();
+        for (Document revocation : mongoTemplate.find(query, Document.class, COLLECTION_NAME)) {
+            revokedSince.put(revocation.getString("_id"), ((Number) revocation.get("revokedBefore")).longValue());
+        }
+        return revokedSince;
+    }
+
+}
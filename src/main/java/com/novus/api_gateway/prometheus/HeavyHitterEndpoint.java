@@ -0,0 +1,25 @@
+package com.novus.api_gateway.prometheus;
+
+import com.novus.api_gateway.service.HeavyHitterService;
+import com.novus.api_gateway.utils.HeavyHitterTracker.HeavyHitter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "heavyhitters")
+@RequiredArgsConstructor
+public class HeavyHitterEndpoint {
+
+    private final HeavyHitterService heavyHitterService;
+
+    @ReadOperation
+    public Map<String, List<HeavyHitter>> heavyHitters() {
+        return heavyHitterService.getTopHitters();
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.novus.api_gateway.prometheus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+@Component
+public class KafkaMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicTag, Counter> dispatchOverflowCounters = new ConcurrentHashMap<>();
+    private final Map<SendKey, Timer> sendTimers = new ConcurrentHashMap<>();
+    private final Map<TopicTag, Counter> aggregatedEventCounters = new ConcurrentHashMap<>();
+    private final Map<TopicTag, Counter> aggregationSummaryCounters = new ConcurrentHashMap<>();
+    private final Map<TopicTag, Counter> aggregationDroppedCounters = new ConcurrentHashMap<>();
+    private final Map<String, TopicPartitions> partitionsByTopic = new ConcurrentHashMap<>();
+    private final Map<TopicTag, DistributionSummary> eventSizeSummaries = new ConcurrentHashMap<>();
+    private final Map<TopicTag, DistributionSummary> principalBytesSavedSummaries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> spooledCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> replayedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> spoolRejectedCounters = new ConcurrentHashMap<>();
+
+    @Getter private final Timer dispatchHandoffTimer;
+
+    public KafkaMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.dispatchHandoffTimer = Timer.builder("kafka.producer.dispatch.handoff.time")
+                .description("Time events wait in the dispatch queue before a sender thread picks them up")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void recordDispatchHandoff(long nanos) {
+        dispatchHandoffTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> void registerDispatchQueueDepth(T dispatchQueue, ToDoubleFunction<T> depthFunction) {
+        Gauge.builder("kafka.producer.dispatch.queue.depth", dispatchQueue, depthFunction)
+                .description("Number of events waiting to be serialized and published")
+                .register(meterRegistry);
+    }
+
+    public void recordDispatchOverflow(String topic, String policy) {
+        dispatchOverflowCounters.computeIfAbsent(new TopicTag(topic, policy), key -> Counter.builder("kafka.producer.dispatch.overflow")
+                .description("Number of events that found the dispatch queue full, by the overflow policy applied")
+                .tag("topic", key.topic())
+                .tag("policy", key.value())
+                .register(meterRegistry)
+        ).increment();
+    }
+
+    public void recordSend(String lane, String topic, long startTime, boolean success) {
+        sendTimers.computeIfAbsent(new SendKey(lane, topic, success), key -> Timer.builder("kafka.producer.send.time")
+                .description("Time from handing a record to a producer lane until the broker acknowledged or rejected it")
+                .tag("lane", key.lane())
+                .tag("topic", key.topic())
+                .tag("outcome", key.success() ? "success" : "failure")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+        ).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAggregationWindow(String topic, String operation, long eventCount) {
+        TopicTag topicOperation = new TopicTag(topic, operation);
+
+        aggregatedEventCounters.computeIfAbsent(topicOperation, key -> Counter.builder("kafka.producer.aggregation.events")
+                .description("Number of telemetry events folded into summary events instead of being published one by one")
+                .tag("topic", key.topic())
+                .tag("operation", key.value())
+                .register(meterRegistry)
+        ).increment(eventCount);
+
+        aggregationSummaryCounters.computeIfAbsent(topicOperation, key -> Counter.builder("kafka.producer.aggregation.summaries")
+                .description("Number of summary events published by the telemetry aggregation stage")
+                .tag("topic", key.topic())
+                .tag("operation", key.value())
+                .register(meterRegistry)
+        ).increment();
+    }
+
+    public void recordAggregationSummaryDropped(String topic, String operation) {
+        aggregationDroppedCounters.computeIfAbsent(new TopicTag(topic, operation), key -> Counter.builder("kafka.producer.aggregation.dropped")
+                .description("Number of summary events dropped because the dispatch queue was full")
+                .tag("topic", key.topic())
+                .tag("operation", key.value())
+                .register(meterRegistry)
+        ).increment();
+    }
+
+    public void recordPartition(String topic, int partition, int partitionCount) {
+        TopicPartitions topicPartitions = partitionsByTopic.computeIfAbsent(topic, this::registerTopicPartitions);
+        topicPartitions.partitionCount().accumulateAndGet(Math.max(partitionCount, partition + 1), Math::max);
+        topicPartitions.recordsByPartition()
+                .computeIfAbsent(partition, ignored -> new PartitionRecords(Counter.builder("kafka.producer.partition.records")
+                        .description("Number of records the gateway sent to each topic partition")
+                        .tag("topic", topic)
+                        .tag("partition", String.valueOf(partition))
+                        .register(meterRegistry), new LongAdder()))
+                .increment();
+    }
+
+    public void recordEventSize(String topic, String projection, int bytes) {
+        eventSizeSummaries.computeIfAbsent(new TopicTag(topic, projection), key -> DistributionSummary.builder("kafka.producer.event.size")
+                .description("Serialized size of events sent by the gateway")
+                .baseUnit("bytes")
+                .tag("topic", key.topic())
+                .tag("projection", key.value())
+                .register(meterRegistry)
+        ).record(bytes);
+    }
+
+    public void recordPrincipalBytesSaved(String topic, String projection, int bytes) {
+        principalBytesSavedSummaries.computeIfAbsent(new TopicTag(topic, projection), key -> DistributionSummary.builder("kafka.producer.principal.bytes_saved")
+                .description("Bytes saved per event by sending a projected principal instead of the full user, sampled")
+                .baseUnit("bytes")
+                .tag("topic", key.topic())
+                .tag("projection", key.value())
+                .register(meterRegistry)
+        ).record(bytes);
+    }
+
+    public void recordSpooled(String topic) {
+        spooledCounters.computeIfAbsent(topic, key -> buildSpoolCounter("kafka.producer.spool.spooled",
+                "Number of events written to the local spool because Kafka could not take them", key)).increment();
+    }
+
+    public void recordReplayed(String topic) {
+        replayedCounters.computeIfAbsent(topic, key -> buildSpoolCounter("kafka.producer.spool.replayed",
+                "Number of spooled events successfully replayed to Kafka", key)).increment();
+    }
+
+    public void recordSpoolRejected(String topic) {
+        spoolRejectedCounters.computeIfAbsent(topic, key -> buildSpoolCounter("kafka.producer.spool.rejected",
+                "Number of events lost because the local spool was full or disabled", key)).increment();
+    }
+
+    private Counter buildSpoolCounter(String name, String description, String topic) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    private TopicPartitions registerTopicPartitions(String topic) {
+        TopicPartitions topicPartitions = new TopicPartitions(new ConcurrentHashMap<>(), new AtomicInteger());
+
+        Gauge.builder("kafka.producer.partition.skew", topicPartitions, KafkaMetrics::skew)
+                .description("Records on the busiest partition divided by the average over all partitions of the topic (1.0 means evenly spread)")
+                .tag("topic", topic)
+                .register(meterRegistry);
+
+        return topicPartitions;
+    }
+
+    private static double skew(TopicPartitions topicPartitions) {
+        long total = 0;
+        long busiest = 0;
+        for (PartitionRecords partitionRecords : topicPartitions.recordsByPartition().values()) {
+            long count = partitionRecords.records().sum();
+            total += count;
+            busiest = Math.max(busiest, count);
+        }
+        return total == 0 ? 0 : (double) busiest * topicPartitions.partitionCount().get() / total;
+    }
+
+    private record TopicTag(String topic, String value) {
+    }
+
+    private record SendKey(String lane, String topic, boolean success) {
+    }
+
+    private record TopicPartitions(Map<Integer, PartitionRecords> recordsByPartition, AtomicInteger partitionCount) {
+    }
+
+    private record PartitionRecords(Counter counter, LongAdder records) {
+
+        void increment() {
+            counter.increment();
+            records.increment();
+        }
+
+    }
+
+}
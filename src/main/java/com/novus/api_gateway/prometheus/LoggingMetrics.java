@@ -0,0 +1,74 @@
+package com.novus.api_gateway.prometheus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+@Component
+public class LoggingMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @Getter private final Timer bulkFlushTimer;
+    @Getter private final DistributionSummary bulkBatchSize;
+    @Getter private final Counter indexedDocumentCounter;
+    @Getter private final Counter failedDocumentCounter;
+    @Getter private final Counter spilledDocumentCounter;
+    @Getter private final Counter replayedDocumentCounter;
+
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.bulkFlushTimer = Timer.builder("logging.bulk.flush.time")
+                .description("Time taken by one _bulk request to Elasticsearch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.bulkBatchSize = DistributionSummary.builder("logging.bulk.batch.size")
+                .description("Number of log documents sent in one _bulk request")
+                .register(meterRegistry);
+
+        this.indexedDocumentCounter = Counter.builder("logging.bulk.indexed")
+                .description("Number of log documents indexed in Elasticsearch")
+                .register(meterRegistry);
+
+        this.failedDocumentCounter = Counter.builder("logging.bulk.failed")
+                .description("Number of log documents lost because Elasticsearch rejected them or could not be reached")
+                .register(meterRegistry);
+
+        this.spilledDocumentCounter = Counter.builder("logging.overflow.spilled")
+                .description("Number of log documents written to the on-disk overflow log")
+                .register(meterRegistry);
+
+        this.replayedDocumentCounter = Counter.builder("logging.overflow.replayed")
+                .description("Number of log documents replayed from the on-disk overflow log to Elasticsearch")
+                .register(meterRegistry);
+    }
+
+    public <T> void registerQueueDepth(T queue, ToDoubleFunction<T> depthFunction) {
+        Gauge.builder("logging.bulk.queue.depth", queue, depthFunction)
+                .description("Number of log documents waiting to be sent to Elasticsearch")
+                .register(meterRegistry);
+    }
+
+    public void recordBulkFlush(int batchSize, long startTime) {
+        bulkBatchSize.record(batchSize);
+        bulkFlushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDropped(String policy) {
+        Counter.builder("logging.bulk.dropped")
+                .description("Number of log documents dropped because the bulk queue was full, by the drop policy applied")
+                .tag("policy", policy)
+                .register(meterRegistry)
+                .increment();
+    }
+
+}
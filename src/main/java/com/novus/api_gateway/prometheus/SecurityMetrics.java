@@ -0,0 +1,121 @@
+package com.novus.api_gateway.prometheus;
+
+import com.novus.api_gateway.utils.HeavyHitterTracker;
+import com.novus.api_gateway.utils.RateLimitTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+@Component
+public class SecurityMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    @Getter private final Counter principalCacheHitCounter;
+    @Getter private final Counter principalCacheMissCounter;
+    @Getter private final Counter principalCacheEvictionCounter;
+    @Getter private final Counter principalCacheInvalidationCounter;
+    @Getter private final Counter deniedClientCounter;
+    @Getter private final Timer ipResolutionStageTimer;
+    @Getter private final Timer rateLimitingStageTimer;
+    @Getter private final Timer tokenVerificationStageTimer;
+    @Getter private final Timer principalResolutionStageTimer;
+    @Getter private final Timer rateLimitClusterFlushTimer;
+    @Getter private final Counter rateLimitClusterFlushFailureCounter;
+    @Getter private final Counter rateLimitClusterRejectionCounter;
+
+    public SecurityMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.principalCacheHitCounter = Counter.builder("security.principal_cache.hits")
+                .description("Number of authenticated requests resolved from the principal cache")
+                .register(meterRegistry);
+
+        this.principalCacheMissCounter = Counter.builder("security.principal_cache.misses")
+                .description("Number of authenticated requests that had to load the user from the database")
+                .register(meterRegistry);
+
+        this.principalCacheEvictionCounter = Counter.builder("security.principal_cache.evictions")
+                .description("Number of principals evicted because the cache reached its maximum size")
+                .register(meterRegistry);
+
+        this.principalCacheInvalidationCounter = Counter.builder("security.principal_cache.invalidations")
+                .description("Number of principals invalidated after a user-mutating event")
+                .register(meterRegistry);
+
+        this.deniedClientCounter = Counter.builder("security.denied_clients")
+                .description("Number of requests rejected because the client IP is on the deny list")
+                .register(meterRegistry);
+
+        this.ipResolutionStageTimer = buildPipelineStageTimer("ip_resolution");
+        this.rateLimitingStageTimer = buildPipelineStageTimer("rate_limiting");
+        this.tokenVerificationStageTimer = buildPipelineStageTimer("token_verification");
+        this.principalResolutionStageTimer = buildPipelineStageTimer("principal_resolution");
+
+        this.rateLimitClusterFlushTimer = Timer.builder("security.rate_limit.cluster.flush.time")
+                .description("Time taken to push locally batched rate-limit counters to the shared store")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        this.rateLimitClusterFlushFailureCounter = Counter.builder("security.rate_limit.cluster.flush.failures")
+                .description("Number of failed attempts to push rate-limit counters to the shared store")
+                .register(meterRegistry);
+
+        this.rateLimitClusterRejectionCounter = Counter.builder("security.rate_limit.cluster.rejections")
+                .description("Number of requests rejected because the cluster-wide rate limit was exceeded")
+                .register(meterRegistry);
+    }
+
+    private Timer buildPipelineStageTimer(String stage) {
+        return Timer.builder("security.pipeline.stage.time")
+                .description("Time spent in each stage of the pre-security request pipeline")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public void recordPipelineStage(Timer stageTimer, long startTime) {
+        stageTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    public void registerRateLimitTableGauges(String bucket, RateLimitTable table) {
+        Gauge.builder("security.rate_limit.table.capacity", table, RateLimitTable::capacity)
+                .description("Number of slots in a rate-limit table")
+                .tag("bucket", bucket)
+                .register(meterRegistry);
+
+        Gauge.builder("security.rate_limit.table.occupied", table, RateLimitTable::occupiedSlots)
+                .description("Number of rate-limit slots currently holding a client")
+                .tag("bucket", bucket)
+                .register(meterRegistry);
+
+        Gauge.builder("security.rate_limit.table.evictions", table, RateLimitTable::evictions)
+                .description("Number of live clients evicted from a rate-limit table to make room for new ones")
+                .tag("bucket", bucket)
+                .register(meterRegistry);
+    }
+
+    public void registerHeavyHitterGauges(String dimension, HeavyHitterTracker tracker, int ranks) {
+        for (int rank = 1; rank <= ranks; rank++) {
+            int trackedRank = rank;
+            Gauge.builder("security.rate_limit.heavy_hitter.count", tracker, heavyHitters -> heavyHitters.countAtRank(trackedRank))
+                    .description("Decayed request cost of the N-th heaviest client for a rate-limit dimension")
+                    .tag("dimension", dimension)
+                    .tag("rank", String.valueOf(rank))
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> void registerGauge(String name, String description, T stateObject, ToDoubleFunction<T> valueFunction) {
+        Gauge.builder(name, stateObject, valueFunction)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+}
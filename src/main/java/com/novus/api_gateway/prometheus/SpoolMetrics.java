@@ -0,0 +1,44 @@
+package com.novus.api_gateway.prometheus;
+
+import com.novus.api_gateway.utils.SegmentedSpool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SpoolMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void registerSpoolGauges(String spoolName, SegmentedSpool spool) {
+        Gauge.builder("spool.size", spool, SegmentedSpool::pendingBytes)
+                .description("Bytes of spooled records waiting for replay")
+                .baseUnit("bytes")
+                .tag("spool", spoolName)
+                .register(meterRegistry);
+
+        Gauge.builder("spool.records", spool, SegmentedSpool::pendingRecords)
+                .description("Number of spooled records waiting for replay")
+                .tag("spool", spoolName)
+                .register(meterRegistry);
+
+        Gauge.builder("spool.replay.lag", spool, SpoolMetrics::replayLagSeconds)
+                .description("Age of the oldest spooled record that has not been replayed yet")
+                .baseUnit("seconds")
+                .tag("spool", spoolName)
+                .register(meterRegistry);
+
+        Gauge.builder("spool.evicted", spool, SegmentedSpool::evictedRecords)
+                .description("Number of spooled records discarded because the spool reached its size cap")
+                .tag("spool", spoolName)
+                .register(meterRegistry);
+    }
+
+    private static double replayLagSeconds(SegmentedSpool spool) {
+        long oldestPendingTimestamp = spool.oldestPendingTimestamp();
+        return oldestPendingTimestamp < 0 ? 0 : (System.currentTimeMillis() - oldestPendingTimestamp) / 1000.0;
+    }
+
+}
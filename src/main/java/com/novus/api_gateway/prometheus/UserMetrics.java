@@ -1,6 +1,8 @@
 package com.novus.api_gateway.prometheus;
 
+import com.novus.api_gateway.utils.LocationCoalescingTable;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
@@ -25,6 +27,8 @@ public class UserMetrics {
     @Getter private final Timer getDashboardDataTimer;
     @Getter private final Timer rateApplicationTimer;
     @Getter private final Timer updateLocationTimer;
+    @Getter private final Counter locationUpdatesBufferedCounter;
+    @Getter private final Counter locationEventsPublishedCounter;
 
     public UserMetrics(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -82,6 +86,33 @@ public class UserMetrics {
         Counter.builder("user.operations.total")
                 .description("Total number of user operations")
                 .register(meterRegistry);
+
+        this.locationUpdatesBufferedCounter = Counter.builder("user.location.coalescing.buffered")
+                .description("Number of location updates absorbed by the coalescing buffer")
+                .register(meterRegistry);
+
+        this.locationEventsPublishedCounter = Counter.builder("user.location.coalescing.published")
+                .description("Number of location events published after coalescing")
+                .register(meterRegistry);
+
+        Gauge.builder("user.location.coalescing.ratio", this, UserMetrics::locationCoalescingRatio)
+                .description("Location updates received per location event published (1.0 means no coalescing)")
+                .register(meterRegistry);
+    }
+
+    public void registerLocationCoalescingGauges(LocationCoalescingTable<?> table) {
+        Gauge.builder("user.location.coalescing.table.occupied", table, LocationCoalescingTable::occupiedSlots)
+                .description("Number of users currently held in the location coalescing table")
+                .register(meterRegistry);
+
+        Gauge.builder("user.location.coalescing.table.capacity", table, LocationCoalescingTable::capacity)
+                .description("Number of slots in the location coalescing table")
+                .register(meterRegistry);
+    }
+
+    private double locationCoalescingRatio() {
+        double published = locationEventsPublishedCounter.count();
+        return published == 0 ? 0 : locationUpdatesBufferedCounter.count() / published;
     }
 
     public void recordOperation(String operationType, int status) {
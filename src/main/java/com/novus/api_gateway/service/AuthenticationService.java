@@ -73,15 +73,16 @@ public class AuthenticationService {
 
         producer.send(kafkaMessage, "authentication-service", "login");
 
-        return ResponseEntity.status(HttpStatus.OK).body(jwtTokenService.generateToken(optionalUser.get().getId()));
+        return ResponseEntity.status(HttpStatus.OK).body(jwtTokenService.generateToken(optionalUser.get()));
     }
 
     public ResponseEntity<String> confirmEmail(String token, HttpServletRequest httpRequest) {
-        if (!jwtTokenService.isEmailTokenValid(token)) {
+        VerifiedToken verifiedToken = jwtTokenService.verifyEmailToken(token);
+        if (isNull(verifiedToken)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or expired verification token. Please request a new verification email.");
         }
 
-        Optional<User> optionalUser = userDaoUtils.findById(jwtTokenService.resolveUserIdFromToken(token));
+        Optional<User> optionalUser = userDaoUtils.findById(verifiedToken.getUserId());
         if (optionalUser.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User account not found. Please register again.");
         }
@@ -151,11 +152,12 @@ public class AuthenticationService {
                     " least 8 characters including uppercase, lowercase, numbers, and special characters.");
         }
 
-        if (!jwtTokenService.isPasswordResetTokenValid(request.getToken())) {
+        VerifiedToken verifiedToken = jwtTokenService.verifyPasswordResetToken(request.getToken());
+        if (isNull(verifiedToken)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid or expired password reset token. Please request a new password reset link.");
         }
 
-        String userId = jwtTokenService.resolveUserIdFromToken(request.getToken());
+        String userId = verifiedToken.getUserId();
         if (isNull(userId)) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized access. User information could not be verified from the token.");
         }
@@ -203,7 +205,7 @@ public class AuthenticationService {
 
         producer.send(kafkaMessage, "authentication-service", "googleLogin");
 
-        return optionalUser.map(value -> ResponseEntity.status(HttpStatus.OK).body(jwtTokenService.generateToken(value.getId())))
+        return optionalUser.map(value -> ResponseEntity.status(HttpStatus.OK).body(jwtTokenService.generateToken(value)))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("User account not found. Please register with Google first."));
     }
 
@@ -0,0 +1,102 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.utils.CidrRadixTree;
+import com.novus.api_gateway.utils.IpAddressParser;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Service;
+
+import static io.jsonwebtoken.lang.Strings.hasText;
+
+@Service
+public class ClientIpResolver {
+
+    private static final String CLIENT_IP_ATTRIBUTE = ClientIpResolver.class.getName() + ".clientIp";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final CidrRadixTree trustedProxies;
+    private final CidrRadixTree deniedClients;
+
+    public ClientIpResolver(EnvConfiguration envConfiguration) {
+        this.trustedProxies = CidrRadixTree.of(envConfiguration.getTrustedProxyCidrs());
+        this.deniedClients = CidrRadixTree.of(envConfiguration.getDeniedClientCidrs());
+    }
+
+    public String resolve(HttpServletRequest request) {
+        if (request.getAttribute(CLIENT_IP_ATTRIBUTE) instanceof String clientIp) {
+            return clientIp;
+        }
+
+        String clientIp = resolveFromHeaders(request);
+        request.setAttribute(CLIENT_IP_ATTRIBUTE, clientIp);
+
+        return clientIp;
+    }
+
+    public boolean isDenied(String clientIp) {
+        return !deniedClients.isEmpty() && deniedClients.contains(clientIp, 0, clientIp.length());
+    }
+
+    private String resolveFromHeaders(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddress, 0, remoteAddress.length())) {
+            return remoteAddress;
+        }
+
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (!hasText(forwardedFor)) {
+            return remoteAddress;
+        }
+
+        int hopEnd = forwardedFor.length();
+        int lastValidStart = -1;
+        int lastValidEnd = -1;
+
+        while (hopEnd > 0) {
+            int separatorIndex = forwardedFor.lastIndexOf(',', hopEnd - 1);
+            int hopStart = trimStart(forwardedFor, separatorIndex + 1, hopEnd);
+            int trimmedEnd = trimEnd(forwardedFor, hopStart, hopEnd);
+
+            if (hopStart < trimmedEnd) {
+                if (!trustedProxies.contains(forwardedFor, hopStart, trimmedEnd)) {
+                    return isAddress(forwardedFor, hopStart, trimmedEnd)
+                            ? forwardedFor.substring(hopStart, trimmedEnd)
+                            : lastValidHop(forwardedFor, lastValidStart, lastValidEnd, remoteAddress);
+                }
+                lastValidStart = hopStart;
+                lastValidEnd = trimmedEnd;
+            }
+
+            hopEnd = Math.max(separatorIndex, 0);
+        }
+
+        return lastValidHop(forwardedFor, lastValidStart, lastValidEnd, remoteAddress);
+    }
+
+    private boolean isTrustedProxy(CharSequence address, int from, int to) {
+        return !trustedProxies.isEmpty() && trustedProxies.contains(address, from, to);
+    }
+
+    private boolean isAddress(CharSequence value, int from, int to) {
+        return IpAddressParser.forCurrentThread().parse(value, from, to);
+    }
+
+    private static String lastValidHop(String forwardedFor, int start, int end, String remoteAddress) {
+        return start < 0 ? remoteAddress : forwardedFor.substring(start, end);
+    }
+
+    private static int trimStart(CharSequence value, int from, int to) {
+        while (from < to && value.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(CharSequence value, int from, int to) {
+        while (to > from && value.charAt(to - 1) == ' ') {
+            to--;
+        }
+        return to;
+    }
+
+}
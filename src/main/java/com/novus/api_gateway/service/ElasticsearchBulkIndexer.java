@@ -0,0 +1,260 @@
+package com.novus.api_gateway.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.api_gateway.configuration.ElasticsearchInitializer;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.prometheus.LoggingMetrics;
+import com.novus.api_gateway.prometheus.SpoolMetrics;
+import com.novus.api_gateway.utils.BulkBatchQueue;
+import com.novus.api_gateway.utils.SegmentedSpool;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+@Component
+public class ElasticsearchBulkIndexer {
+
+    private static final String DROP_OLDEST_POLICY = "drop-oldest";
+    private static final String DROP_NEWEST_POLICY = "drop-newest";
+    private static final long DRAIN_TIMEOUT_MS = 5000;
+    private static final long REPLAY_INTERVAL_MS = 1000;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int NOT_FOUND = 404;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchInitializer elasticsearchInitializer;
+    private final ObjectMapper objectMapper;
+    private final LoggingMetrics loggingMetrics;
+    private final BulkBatchQueue<IndexedDocument> queue;
+    private final boolean dropOldest;
+    private final int queueCapacity;
+    private final int maxActions;
+    private final int replayRatePerSecond;
+    private final SegmentedSpool overflow;
+    private final ScheduledExecutorService replayer;
+
+    public ElasticsearchBulkIndexer(ElasticsearchClient elasticsearchClient, ElasticsearchInitializer elasticsearchInitializer,
+                                    ObjectMapper objectMapper, EnvConfiguration envConfiguration, LoggingMetrics loggingMetrics,
+                                    SpoolMetrics spoolMetrics) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchInitializer = elasticsearchInitializer;
+        this.objectMapper = objectMapper;
+        this.loggingMetrics = loggingMetrics;
+        this.dropOldest = DROP_OLDEST_POLICY.equalsIgnoreCase(envConfiguration.getElasticsearchBulkDropPolicy());
+        this.queueCapacity = envConfiguration.getElasticsearchBulkQueueCapacity();
+        this.maxActions = envConfiguration.getElasticsearchBulkMaxActions();
+        this.replayRatePerSecond = envConfiguration.getElasticsearchOverflowReplayRatePerSecond();
+        this.queue = new BulkBatchQueue<>("elasticsearch-bulk-indexer",
+                queueCapacity,
+                maxActions,
+                envConfiguration.getElasticsearchBulkFlushIntervalMs(),
+                this::flush);
+        loggingMetrics.registerQueueDepth(queue, BulkBatchQueue::depth);
+
+        if (!envConfiguration.isElasticsearchOverflowEnabled()) {
+            this.overflow = null;
+            this.replayer = null;
+            return;
+        }
+
+        this.overflow = new SegmentedSpool(Path.of(envConfiguration.getElasticsearchOverflowDirectory()),
+                envConfiguration.getElasticsearchOverflowSegmentSizeBytes(), envConfiguration.getElasticsearchOverflowMaxSizeBytes(), true);
+        spoolMetrics.registerSpoolGauges("api_logs", overflow);
+
+        this.replayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elasticsearch-overflow-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.replayer.scheduleWithFixedDelay(this::replay, REPLAY_INTERVAL_MS, REPLAY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void index(String index, Map<String, Object> document) {
+        IndexedDocument indexedDocument = new IndexedDocument(index, document);
+        if (queue.offer(indexedDocument) || spill(indexedDocument)) {
+            return;
+        }
+
+        if (dropOldest && queue.pollOldest() != null && queue.offer(indexedDocument)) {
+            loggingMetrics.recordDropped(DROP_OLDEST_POLICY);
+            return;
+        }
+
+        loggingMetrics.recordDropped(DROP_NEWEST_POLICY);
+    }
+
+    public void replay() {
+        if (isNull(overflow) || !overflow.hasPending()) {
+            if (!isNull(overflow)) {
+                overflow.force();
+            }
+            return;
+        }
+
+        if (!elasticsearchInitializer.isInitialized() || !isElasticsearchReachable()) {
+            return;
+        }
+
+        int budget = replayRatePerSecond;
+        while (budget > 0 && queue.depth() < queueCapacity / 2 && overflow.hasPending()) {
+            List<IndexedDocument> batch = new ArrayList<>();
+            overflow.replay(Math.min(budget, maxActions), (payload, timestamp) -> {
+                IndexedDocument document = decode(payload);
+                if (!isNull(document)) {
+                    batch.add(document);
+                }
+                return true;
+            });
+
+            if (batch.isEmpty()) {
+                return;
+            }
+            budget -= batch.size();
+
+            int indexed = flush(batch);
+            loggingMetrics.getReplayedDocumentCounter().increment(indexed);
+            if (indexed == 0) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        queue.shutdown(DRAIN_TIMEOUT_MS);
+
+        if (isNull(overflow)) {
+            return;
+        }
+
+        replayer.shutdown();
+        try {
+            replayer.awaitTermination(DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        overflow.close();
+    }
+
+    private int flush(List<IndexedDocument> batch) {
+        if (!elasticsearchInitializer.isInitialized()) {
+            spillBatch(batch, "Elasticsearch indices are not initialized yet");
+            return 0;
+        }
+
+        BulkRequest.Builder bulkRequest = new BulkRequest.Builder();
+        for (IndexedDocument indexedDocument : batch) {
+            bulkRequest.operations(operation -> operation
+                    .index(index -> index
+                            .index(indexedDocument.index())
+                            .requireAlias(ElasticsearchInitializer.API_LOGS_WRITE_ALIAS.equals(indexedDocument.index()))
+                            .document(indexedDocument.document())));
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            BulkResponse response = elasticsearchClient.bulk(bulkRequest.build());
+            loggingMetrics.recordBulkFlush(batch.size(), startTime);
+
+            int failed = response.errors() ? handleFailedItems(batch, response) : 0;
+            loggingMetrics.getIndexedDocumentCounter().increment(batch.size() - failed);
+            return batch.size() - failed;
+        } catch (Exception exception) {
+            loggingMetrics.recordBulkFlush(batch.size(), startTime);
+            spillBatch(batch, exception.getMessage());
+            return 0;
+        }
+    }
+
+    private void spillBatch(List<IndexedDocument> batch, String reason) {
+        int spilled = 0;
+        for (IndexedDocument indexedDocument : batch) {
+            if (spill(indexedDocument)) {
+                spilled++;
+            }
+        }
+        loggingMetrics.getFailedDocumentCounter().increment(batch.size() - spilled);
+        log.error("🔄 Elasticsearch bulk flush failed, {}/{} document(s) moved to the overflow log: {}",
+                spilled, batch.size(), reason);
+    }
+
+    private int handleFailedItems(List<IndexedDocument> batch, BulkResponse response) {
+        int failed = 0;
+        int retried = 0;
+        List<BulkResponseItem> items = response.items();
+        for (int i = 0; i < items.size(); i++) {
+            if (isNull(items.get(i).error())) {
+                continue;
+            }
+
+            failed++;
+            int status = items.get(i).status();
+            if ((status == TOO_MANY_REQUESTS || status == NOT_FOUND) && spill(batch.get(i))) {
+                retried++;
+            }
+        }
+
+        loggingMetrics.getFailedDocumentCounter().increment(failed - retried);
+        log.warn("🔄 Elasticsearch bulk flush | {}/{} document(s) rejected, {} moved to the overflow log", failed, batch.size(), retried);
+        return failed;
+    }
+
+    private boolean isElasticsearchReachable() {
+        try {
+            return elasticsearchClient.ping().value();
+        } catch (Exception exception) {
+            log.debug("Elasticsearch still unavailable for overflow replay: {}", exception.getMessage());
+            return false;
+        }
+    }
+
+    private boolean spill(IndexedDocument indexedDocument) {
+        if (isNull(overflow)) {
+            return false;
+        }
+
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(new SpilledDocument(indexedDocument.index(), indexedDocument.document()));
+            if (overflow.append(payload, System.currentTimeMillis())) {
+                loggingMetrics.getSpilledDocumentCounter().increment();
+                return true;
+            }
+        } catch (IOException exception) {
+            log.error("🔄 Could not encode log document for the overflow log: {}", exception.getMessage());
+        }
+        return false;
+    }
+
+    private IndexedDocument decode(byte[] payload) {
+        try {
+            SpilledDocument spilledDocument = objectMapper.readValue(payload, SpilledDocument.class);
+            return new IndexedDocument(spilledDocument.index(), spilledDocument.document());
+        } catch (IOException exception) {
+            log.error("🔄 Dropping undecodable log document from the overflow log: {}", exception.getMessage());
+            return null;
+        }
+    }
+
+    private record IndexedDocument(String index, Map<String, Object> document) {
+    }
+
+    private record SpilledDocument(String index, Map<String, Object> document) {
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.DateConfiguration;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EndpointRollupService {
+
+    private static final String ROLLUP_INDEX = "api_rollups";
+    private static final int HISTOGRAM_SIGNIFICANT_DIGITS = 2;
+    private static final long MINUTE_MS = 60000;
+
+    private final ElasticsearchBulkIndexer elasticsearchBulkIndexer;
+    private final DateConfiguration dateConfiguration;
+    private final Map<RollupKey, RollupAccumulator> accumulators = new ConcurrentHashMap<>();
+    private final Map<String, Long> recentP95ByRoute = new ConcurrentHashMap<>();
+    private volatile long windowStart = currentMinute();
+
+    public void record(String serviceName, String route, String method, int statusCode, long responseTime) {
+        accumulators.computeIfAbsent(new RollupKey(serviceName, route, method), ignored -> new RollupAccumulator())
+                .record(statusCode, responseTime);
+    }
+
+    public long recentP95(String method, String route) {
+        return recentP95ByRoute.getOrDefault(method + " " + route, -1L);
+    }
+
+    @Scheduled(cron = "0 * * * * *")
+    public void emitRollups() {
+        long drainedWindowStart = windowStart;
+        windowStart = currentMinute();
+
+        int emitted = 0;
+        for (Map.Entry<RollupKey, RollupAccumulator> entry : accumulators.entrySet()) {
+            Map<String, Object> document = entry.getValue().drain(entry.getKey());
+            if (document == null) {
+                accumulators.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            document.put("timestamp", dateConfiguration.toDate(drainedWindowStart));
+            recentP95ByRoute.put(entry.getKey().method() + " " + entry.getKey().route(), (Long) document.get("response_time_p95_ms"));
+
+            elasticsearchBulkIndexer.index(ROLLUP_INDEX, document);
+            emitted++;
+        }
+
+        if (emitted > 0) {
+            log.debug("🔄 Endpoint rollups | {} rollup document(s) emitted for the minute starting at {}", emitted, drainedWindowStart);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        emitRollups();
+    }
+
+    private static long currentMinute() {
+        long now = System.currentTimeMillis();
+        return now - now % MINUTE_MS;
+    }
+
+    private record RollupKey(String service, String route, String method) {
+    }
+
+    private static final class RollupAccumulator {
+
+        private final Recorder latencyRecorder = new Recorder(HISTOGRAM_SIGNIFICANT_DIGITS);
+        private final LongAdder status2xx = new LongAdder();
+        private final LongAdder status3xx = new LongAdder();
+        private final LongAdder status4xx = new LongAdder();
+        private final LongAdder status5xx = new LongAdder();
+        private final LongAdder statusOther = new LongAdder();
+        private final LongAdder latencySum = new LongAdder();
+        private Histogram recycledHistogram;
+
+        void record(int statusCode, long responseTime) {
+            long latency = Math.max(responseTime, 0);
+            latencyRecorder.recordValue(latency);
+            latencySum.add(latency);
+
+            switch (statusCode / 100) {
+                case 2 -> status2xx.increment();
+                case 3 -> status3xx.increment();
+                case 4 -> status4xx.increment();
+                case 5 -> status5xx.increment();
+                default -> statusOther.increment();
+            }
+        }
+
+        synchronized Map<String, Object> drain(RollupKey key) {
+            Histogram histogram = latencyRecorder.getIntervalHistogram(recycledHistogram);
+            recycledHistogram = histogram;
+
+            long count = histogram.getTotalCount();
+            long sum = latencySum.sumThenReset();
+            long status2xxCount = status2xx.sumThenReset();
+            long status3xxCount = status3xx.sumThenReset();
+            long status4xxCount = status4xx.sumThenReset();
+            long status5xxCount = status5xx.sumThenReset();
+            long statusOtherCount = statusOther.sumThenReset();
+            if (count == 0) {
+                return null;
+            }
+
+            Map<String, Object> document = new HashMap<>();
+            document.put("service", key.service());
+            document.put("route", key.route());
+            document.put("method", key.method());
+            document.put("request_count", count);
+            document.put("status_2xx", status2xxCount);
+            document.put("status_3xx", status3xxCount);
+            document.put("status_4xx", status4xxCount);
+            document.put("status_5xx", status5xxCount);
+            document.put("status_other", statusOtherCount);
+            document.put("response_time_sum_ms", sum);
+            document.put("response_time_mean_ms", histogram.getMean());
+            document.put("response_time_p50_ms", histogram.getValueAtPercentile(50));
+            document.put("response_time_p90_ms", histogram.getValueAtPercentile(90));
+            document.put("response_time_p95_ms", histogram.getValueAtPercentile(95));
+            document.put("response_time_p99_ms", histogram.getValueAtPercentile(99));
+            document.put("response_time_max_ms", histogram.getMaxValue());
+            document.put("response_time_histogram", encode(histogram));
+            return document;
+        }
+
+        private static String encode(Histogram histogram) {
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+        }
+
+    }
+
+}
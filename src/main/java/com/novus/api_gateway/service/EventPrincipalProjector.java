@@ -0,0 +1,70 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.shared_models.common.User.User;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+@Component
+public class EventPrincipalProjector {
+
+    private final Map<String, Projection> projectionsByOperation;
+
+    public EventPrincipalProjector(EnvConfiguration envConfiguration) {
+        this.projectionsByOperation = buildProjections(envConfiguration.getKafkaPrincipalProjections());
+    }
+
+    public Projection projectionFor(String operation) {
+        return projectionsByOperation.getOrDefault(operation, Projection.FULL);
+    }
+
+    public User project(User user, Projection projection) {
+        if (isNull(user)) {
+            return null;
+        }
+
+        return switch (projection) {
+            case ID -> User.builder()
+                    .id(user.getId())
+                    .role(user.getRole())
+                    .build();
+            case PROFILE -> User.builder()
+                    .id(user.getId())
+                    .role(user.getRole())
+                    .username(user.getUsername())
+                    .email(user.getEmail())
+                    .build();
+            case FULL -> user;
+        };
+    }
+
+    private Map<String, Projection> buildProjections(List<String> configuredProjections) {
+        Map<String, Projection> projections = new HashMap<>();
+        if (isNull(configuredProjections)) {
+            return projections;
+        }
+
+        for (String configuredProjection : configuredProjections) {
+            int separatorIndex = configuredProjection.indexOf('=');
+            if (separatorIndex < 0) {
+                throw new IllegalStateException("Invalid principal projection, expected 'operation=ID|PROFILE|FULL': " + configuredProjection);
+            }
+
+            projections.put(configuredProjection.substring(0, separatorIndex).trim(),
+                    Projection.valueOf(configuredProjection.substring(separatorIndex + 1).trim().toUpperCase()));
+        }
+        return projections;
+    }
+
+    public enum Projection {
+        ID,
+        PROFILE,
+        FULL
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.prometheus.SecurityMetrics;
+import com.novus.api_gateway.utils.HeavyHitterTracker;
+import com.novus.api_gateway.utils.HeavyHitterTracker.HeavyHitter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@EnableScheduling
+public class HeavyHitterService {
+
+    private static final int SKETCH_WIDTH = 4096;
+    private static final int RANKED_GAUGES = 5;
+
+    private final HeavyHitterTracker ipHeavyHitters;
+    private final HeavyHitterTracker userHeavyHitters;
+    private final HeavyHitterTracker routeHeavyHitters;
+
+    public HeavyHitterService(EnvConfiguration envConfiguration, SecurityMetrics securityMetrics) {
+        int topSize = envConfiguration.getHeavyHitterTopSize();
+        this.ipHeavyHitters = new HeavyHitterTracker(SKETCH_WIDTH, topSize);
+        this.userHeavyHitters = new HeavyHitterTracker(SKETCH_WIDTH, topSize);
+        this.routeHeavyHitters = new HeavyHitterTracker(SKETCH_WIDTH, topSize);
+
+        int rankedGauges = Math.min(RANKED_GAUGES, topSize);
+        securityMetrics.registerHeavyHitterGauges("ip", ipHeavyHitters, rankedGauges);
+        securityMetrics.registerHeavyHitterGauges("user", userHeavyHitters, rankedGauges);
+        securityMetrics.registerHeavyHitterGauges("route", routeHeavyHitters, rankedGauges);
+    }
+
+    public void recordIp(long key, String ipAddress, int cost) {
+        ipHeavyHitters.record(key, ipAddress, cost);
+    }
+
+    public void recordUser(long key, String userId, int cost) {
+        userHeavyHitters.record(key, userId, cost);
+    }
+
+    public void recordRoute(long key, String route, int cost) {
+        routeHeavyHitters.record(key, route, cost);
+    }
+
+    public Map<String, List<HeavyHitter>> getTopHitters() {
+        Map<String, List<HeavyHitter>> topHitters = new LinkedHashMap<>();
+        topHitters.put("ip", ipHeavyHitters.topHitters());
+        topHitters.put("user", userHeavyHitters.topHitters());
+        topHitters.put("route", routeHeavyHitters.topHitters());
+        return topHitters;
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void decayCounts() {
+        ipHeavyHitters.decay();
+        userHeavyHitters.decay();
+        routeHeavyHitters.decay();
+    }
+
+}
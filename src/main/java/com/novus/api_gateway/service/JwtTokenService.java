@@ -2,10 +2,13 @@ package com.novus.api_gateway.service;
 
 import com.novus.api_gateway.configuration.DateConfiguration;
 import com.novus.api_gateway.configuration.EnvConfiguration;
-import io.jsonwebtoken.Claims;
+import com.novus.shared_models.common.User.User;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -22,107 +25,131 @@ import static java.util.Objects.isNull;
 @RequiredArgsConstructor
 public class JwtTokenService {
 
+    private static final String VERIFIED_TOKEN_ATTRIBUTE = JwtTokenService.class.getName() + ".verifiedToken";
+    private static final Object NO_VERIFIED_TOKEN = new Object();
+    private static final String BEARER_PREFIX = "Bearer ";
+    static final long TOKEN_EXPIRATION_TIME = 172_800_000;
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
     private final EnvConfiguration envConfiguration;
     private final DateConfiguration dateConfiguration;
-    private static final long TOKEN_EXPIRATION_TIME = 172_800_000;
 
-    private Key getSigningKey() {
-        String secretString = envConfiguration.getJwtSecret();
-        byte[] keyBytes = secretString.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void initializeSigningKey() {
+        byte[] keyBytes = envConfiguration.getJwtSecret().getBytes(StandardCharsets.UTF_8);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
-    public String generateToken(String userId) {
+    public String generateToken(User user) {
         Date now = dateConfiguration.newDate();
         Date expiryDate = new Date(now.getTime() + TOKEN_EXPIRATION_TIME);
 
-        return Jwts.builder()
-                .setSubject(userId)
+        JwtBuilder jwtBuilder = Jwts.builder()
+                .setSubject(user.getId())
                 .claim("type", "access")
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
-    }
+                .setExpiration(expiryDate);
 
-    public boolean isEmailTokenValid(String token) {
-        Claims claims = parseTokenClaims(token);
-        if (isNull(claims)) {
-            return false;
+        if (envConfiguration.isJwtSelfContainedEnabled() && !isNull(user.getRole())) {
+            jwtBuilder
+                    .claim(VerifiedToken.ROLE_CLAIM, user.getRole().toString())
+                    .claim(VerifiedToken.USERNAME_CLAIM, user.getUsername());
         }
 
-        if (!isEmailConfirmationToken(claims)) {
-            return false;
-        }
-
-        return isTokenNotExpired(claims);
+        return jwtBuilder
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
     }
 
-    public boolean isPasswordResetTokenValid(String token) {
-        return isTokenValid(token);
+    public VerifiedToken verifyEmailToken(String token) {
+        return verifyTokenOfType(token, "email_confirmation");
     }
 
-    private boolean isTokenValid(String token) {
-        Claims claims = parseTokenClaims(token);
-        if (isNull(claims)) {
-            return false;
-        }
+    public VerifiedToken verifyPasswordResetToken(String token) {
+        return verifyTokenOfType(token, "password_reset");
+    }
 
-        if (!"password_reset".equals(claims.get("type"))) {
-            return false;
+    private VerifiedToken verifyTokenOfType(String token, String type) {
+        VerifiedToken verifiedToken = verifyToken(token);
+        if (isNull(verifiedToken) || !verifiedToken.isOfType(type)) {
+            return null;
         }
 
-        return isTokenNotExpired(claims);
+        return verifiedToken.isNotExpiredAt(dateConfiguration.newDate()) ? verifiedToken : null;
     }
 
-    private Claims parseTokenClaims(String token) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (Exception e) {
+    public VerifiedToken resolveVerifiedToken(HttpServletRequest request) {
+        Object cachedToken = request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE);
+        if (cachedToken instanceof VerifiedToken verifiedToken) {
+            return verifiedToken;
+        }
+
+        if (cachedToken == NO_VERIFIED_TOKEN) {
             return null;
         }
-    }
 
-    private boolean isEmailConfirmationToken(Claims claims) {
-        return "email_confirmation".equals(claims.get("type"));
-    }
+        VerifiedToken verifiedToken = verifyToken(extractBearerToken(request));
+        request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, isNull(verifiedToken) ? NO_VERIFIED_TOKEN : verifiedToken);
 
-    private boolean isTokenNotExpired(Claims claims) {
-        Date expirationDate = claims.getExpiration();
-        return expirationDate != null && expirationDate.after(dateConfiguration.newDate());
+        return verifiedToken;
     }
 
-    public String resolveUserIdFromRequest(HttpServletRequest request) {
-        String token = verifyTokenFormat(request);
-        return token == null ? null : resolveUserIdFromToken(token);
+    public boolean hasBearerToken(HttpServletRequest request) {
+        return !isNull(extractBearerToken(request));
     }
 
-    public String resolveUserIdFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody().getSubject();
+    public VerifiedToken verifyToken(String token) {
+        if (!hasCompactJwsShape(token)) {
+            return null;
+        }
+
+        try {
+            return new VerifiedToken(token, jwtParser.parseClaimsJws(token).getBody());
+        } catch (Exception exception) {
+            return null;
+        }
     }
 
-    private String verifyTokenFormat(HttpServletRequest request) {
+    private String extractBearerToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
 
-        if (!hasText(bearerToken) || !bearerToken.startsWith("Bearer ")) {
+        if (!hasText(bearerToken) || !bearerToken.startsWith(BEARER_PREFIX)) {
             return null;
         }
 
-        String token = bearerToken.substring(7);
-        return isValidTokenFormat(token) ? token : null;
+        return bearerToken.substring(BEARER_PREFIX.length());
     }
 
-    private boolean isValidTokenFormat(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception exception) {
+    private boolean hasCompactJwsShape(String token) {
+        if (isNull(token) || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
             return false;
         }
+
+        int separators = 0;
+        int segmentLength = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (segmentLength == 0 || ++separators > 2) {
+                    return false;
+                }
+                segmentLength = 0;
+            } else if (isBase64UrlCharacter(c)) {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+
+        return separators == 2 && segmentLength > 0;
+    }
+
+    private boolean isBase64UrlCharacter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
     }
 
 }
@@ -0,0 +1,35 @@
+package com.novus.api_gateway.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class KafkaEventSerializer {
+
+    private static final String SMILE_FORMAT = "smile";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+
+    private final ObjectMapper eventMapper;
+    private final byte[] contentType;
+
+    public KafkaEventSerializer(ObjectMapper objectMapper, EnvConfiguration envConfiguration) {
+        boolean isSmile = SMILE_FORMAT.equalsIgnoreCase(envConfiguration.getKafkaEventFormat());
+        this.eventMapper = isSmile ? objectMapper.copyWith(new SmileFactory()) : objectMapper;
+        this.contentType = (isSmile ? SMILE_CONTENT_TYPE : JSON_CONTENT_TYPE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public byte[] serialize(Object event) throws JsonProcessingException {
+        return eventMapper.writeValueAsBytes(event);
+    }
+
+    public byte[] getContentType() {
+        return contentType.clone();
+    }
+
+}
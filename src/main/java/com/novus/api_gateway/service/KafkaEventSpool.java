@@ -0,0 +1,217 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.prometheus.KafkaMetrics;
+import com.novus.api_gateway.prometheus.SpoolMetrics;
+import com.novus.api_gateway.utils.SegmentedSpool;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+@Component
+public class KafkaEventSpool {
+
+    private static final int REPLAY_BATCH_SIZE = 500;
+    private static final long REPLAY_INTERVAL_MS = 1000;
+    private static final long REPLAY_SEND_TIMEOUT_MS = 10000;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final KafkaMetrics kafkaMetrics;
+    private final SegmentedSpool spool;
+    private final ScheduledExecutorService replayer;
+
+    public KafkaEventSpool(KafkaTemplate<String, byte[]> kafkaTemplate, EnvConfiguration envConfiguration, KafkaMetrics kafkaMetrics,
+                           SpoolMetrics spoolMetrics) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaMetrics = kafkaMetrics;
+
+        if (!envConfiguration.isKafkaSpoolEnabled()) {
+            this.spool = null;
+            this.replayer = null;
+            return;
+        }
+
+        this.spool = new SegmentedSpool(Path.of(envConfiguration.getKafkaSpoolDirectory()),
+                envConfiguration.getKafkaSpoolSegmentSizeBytes(), envConfiguration.getKafkaSpoolMaxSizeBytes(), false);
+        spoolMetrics.registerSpoolGauges("kafka_events", spool);
+
+        this.replayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafka-spool-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.replayer.scheduleWithFixedDelay(this::replay, REPLAY_INTERVAL_MS, REPLAY_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean hasPending() {
+        return !isNull(spool) && spool.hasPending();
+    }
+
+    public boolean spool(ProducerRecord<String, byte[]> record) {
+        if (isNull(spool)) {
+            return false;
+        }
+
+        try {
+            if (spool.append(encode(record), System.currentTimeMillis())) {
+                kafkaMetrics.recordSpooled(record.topic());
+                return true;
+            }
+        } catch (IOException exception) {
+            log.error("🔄 Could not encode event for the spool: {}", exception.getMessage());
+        }
+
+        kafkaMetrics.recordSpoolRejected(record.topic());
+        log.error("🔄 Kafka spool is full, event for topic: {} is lost", record.topic());
+        return false;
+    }
+
+    public void spoolAsync(ProducerRecord<String, byte[]> record) {
+        if (isNull(spool)) {
+            return;
+        }
+
+        try {
+            replayer.execute(() -> spool(record));
+        } catch (RejectedExecutionException exception) {
+            spool(record);
+        }
+    }
+
+    public synchronized void replay() {
+        if (!spool.hasPending()) {
+            spool.force();
+            return;
+        }
+
+        int replayed = 0;
+        int batchReplayed;
+        do {
+            batchReplayed = spool.replayBatch(REPLAY_BATCH_SIZE, this::sendBatch);
+            replayed += batchReplayed;
+        } while (batchReplayed == REPLAY_BATCH_SIZE && !Thread.currentThread().isInterrupted());
+
+        if (replayed > 0) {
+            log.info("🔄 Replayed {} spooled event(s) to Kafka | {} still pending", replayed, spool.pendingRecords());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (isNull(spool)) {
+            return;
+        }
+
+        replayer.shutdown();
+        try {
+            replayer.awaitTermination(REPLAY_SEND_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        spool.close();
+    }
+
+    private int sendBatch(List<byte[]> payloads) {
+        List<ReplayedRecord> replayedRecords = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) {
+            try {
+                ProducerRecord<String, byte[]> record = decode(payload);
+                replayedRecords.add(new ReplayedRecord(record.topic(), kafkaTemplate.send(record)));
+            } catch (IOException exception) {
+                log.error("🔄 Dropping undecodable spooled event: {}", exception.getMessage());
+                replayedRecords.add(new ReplayedRecord(null, null));
+            } catch (Exception exception) {
+                log.debug("Kafka still unavailable for spool replay: {}", exception.getMessage());
+                break;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REPLAY_SEND_TIMEOUT_MS);
+        int acknowledged = 0;
+        for (ReplayedRecord replayedRecord : replayedRecords) {
+            if (!isNull(replayedRecord.future())) {
+                try {
+                    replayedRecord.future().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    kafkaMetrics.recordReplayed(replayedRecord.topic());
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception exception) {
+                    log.debug("Kafka still unavailable for spool replay: {}", exception.getMessage());
+                    break;
+                }
+            }
+            acknowledged++;
+        }
+        return acknowledged;
+    }
+
+    private static byte[] encode(ProducerRecord<String, byte[]> record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(record.value().length + 128);
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeUTF(record.topic());
+        output.writeBoolean(!isNull(record.key()));
+        if (!isNull(record.key())) {
+            output.writeUTF(record.key());
+        }
+
+        Header[] headers = record.headers().toArray();
+        output.writeInt(headers.length);
+        for (Header header : headers) {
+            output.writeUTF(header.key());
+            output.writeInt(header.value().length);
+            output.write(header.value());
+        }
+
+        output.writeInt(record.value().length);
+        output.write(record.value());
+        return bytes.toByteArray();
+    }
+
+    private static ProducerRecord<String, byte[]> decode(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+
+        String topic = input.readUTF();
+        String key = input.readBoolean() ? input.readUTF() : null;
+
+        RecordHeaders headers = new RecordHeaders();
+        int headerCount = input.readInt();
+        for (int i = 0; i < headerCount; i++) {
+            String headerKey = input.readUTF();
+            byte[] headerValue = new byte[input.readInt()];
+            input.readFully(headerValue);
+            headers.add(headerKey, headerValue);
+        }
+
+        byte[] value = new byte[input.readInt()];
+        input.readFully(value);
+        return new ProducerRecord<>(topic, null, key, value, headers);
+    }
+
+    private record ReplayedRecord(String topic, CompletableFuture<SendResult<String, byte[]>> future) {
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+
+@Component
+@RequiredArgsConstructor
+public class KafkaPartitionKeyResolver {
+
+    private static final String OPERATION_STRATEGY = "operation";
+    private static final double GEO_CELL_SIZE_DEGREES = 0.1;
+
+    private static final Set<String> ALERT_OPERATIONS = Set.of(
+            "validateUserAlert",
+            "invalidateUserAlert"
+    );
+
+    private static final Set<String> GEO_OPERATIONS = Set.of(
+            "saveNewAlert"
+    );
+
+    private final EnvConfiguration envConfiguration;
+
+    public String resolve(KafkaMessage kafkaMessage, String operation) {
+        if (OPERATION_STRATEGY.equalsIgnoreCase(envConfiguration.getKafkaPartitionKeyStrategy())) {
+            return operation;
+        }
+
+        Map<String, String> request = kafkaMessage.getRequest();
+
+        if (ALERT_OPERATIONS.contains(operation) && hasValue(request, "alertId")) {
+            return "alert:" + request.get("alertId");
+        }
+
+        if (GEO_OPERATIONS.contains(operation) && hasValue(request, "latitude") && hasValue(request, "longitude")) {
+            String geoCell = toGeoCell(request.get("latitude"), request.get("longitude"));
+            if (!isNull(geoCell)) {
+                return geoCell;
+            }
+        }
+
+        if (hasValue(request, "userId")) {
+            return "user:" + request.get("userId");
+        }
+
+        if (!isNull(kafkaMessage.getAuthenticatedUser()) && !isNull(kafkaMessage.getAuthenticatedUser().getId())) {
+            return "user:" + kafkaMessage.getAuthenticatedUser().getId();
+        }
+
+        if (hasValue(request, "email")) {
+            return "email:" + request.get("email").toLowerCase();
+        }
+
+        return null;
+    }
+
+    static String toGeoCell(String latitude, String longitude) {
+        try {
+            long latitudeCell = (long) Math.floor(Double.parseDouble(latitude) / GEO_CELL_SIZE_DEGREES);
+            long longitudeCell = (long) Math.floor(Double.parseDouble(longitude) / GEO_CELL_SIZE_DEGREES);
+            return "geo:" + latitudeCell + ":" + longitudeCell;
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private boolean hasValue(Map<String, String> request, String field) {
+        return !isNull(request) && !isNull(request.get(field)) && !request.get(field).isEmpty();
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.Producer;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.prometheus.UserMetrics;
+import com.novus.api_gateway.utils.LocationCoalescingTable;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import com.novus.shared_models.common.User.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+@Service
+public class LocationUpdateCoalescer {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF2_9CE4_8422_2325L;
+    private static final long FNV_PRIME = 0x0100_0000_01B3L;
+    private static final int MAX_INTERVAL_WINDOWS = 6;
+    private static final int EVICT_AFTER_WINDOWS = 60;
+
+    private final Producer producer;
+    private final EnvConfiguration envConfiguration;
+    private final UserMetrics userMetrics;
+    private final LocationCoalescingTable<LocationSource> table;
+
+    public LocationUpdateCoalescer(Producer producer, EnvConfiguration envConfiguration, UserMetrics userMetrics) {
+        this.producer = producer;
+        this.envConfiguration = envConfiguration;
+        this.userMetrics = userMetrics;
+        this.table = envConfiguration.isLocationCoalescingEnabled()
+                ? new LocationCoalescingTable<>(envConfiguration.getLocationCoalescingTableCapacity())
+                : null;
+
+        if (!isNull(table)) {
+            userMetrics.registerLocationCoalescingGauges(table);
+        }
+    }
+
+    public boolean offer(User authenticatedUser, String ipAddress, double latitude, double longitude) {
+        if (isNull(table) || isNull(authenticatedUser.getId())) {
+            return false;
+        }
+
+        long key = hash(authenticatedUser.getId());
+        LocationSource source = table.attachment(key);
+        if (isNull(source) || !source.matches(authenticatedUser, ipAddress)) {
+            source = new LocationSource(authenticatedUser, ipAddress);
+        }
+
+        if (!table.update(key, latitude, longitude, System.currentTimeMillis(), source)) {
+            return false;
+        }
+
+        userMetrics.getLocationUpdatesBufferedCounter().increment();
+        return true;
+    }
+
+    @Scheduled(fixedRateString = "${supmap.properties.location-coalescing-window-ms:5000}")
+    public void flush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush(true);
+    }
+
+    private synchronized void flush(boolean force) {
+        if (isNull(table)) {
+            return;
+        }
+
+        long window = envConfiguration.getLocationCoalescingWindowMs();
+        int published = table.flush(System.currentTimeMillis(), envConfiguration.getLocationCoalescingMinDistanceMeters(),
+                window, window * MAX_INTERVAL_WINDOWS, window * EVICT_AFTER_WINDOWS, force, this::publish);
+
+        if (published > 0) {
+            log.debug("🔄 Location coalescing flush | {} position(s) published | {}/{} slot(s) occupied",
+                    published, table.occupiedSlots(), table.capacity());
+        }
+    }
+
+    private boolean publish(LocationSource source, double latitude, double longitude, long timestamp) {
+        Map<String, String> kafkaRequest = Map.of(
+                "latitude", String.valueOf(latitude),
+                "longitude", String.valueOf(longitude)
+        );
+
+        KafkaMessage kafkaMessage = KafkaMessage.builder()
+                .authenticatedUser(source.user())
+                .ipAddress(source.ipAddress())
+                .request(kafkaRequest)
+                .timeStamp(String.valueOf(timestamp))
+                .build();
+
+        try {
+            producer.send(kafkaMessage, "user-service", "updateUserLocation");
+            userMetrics.getLocationEventsPublishedCounter().increment();
+            return true;
+        } catch (RuntimeException exception) {
+            log.warn("🔄 Could not publish coalesced location for user: {}: {}", source.user().getId(), exception.getMessage());
+            return false;
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private record LocationSource(User user, String ipAddress) {
+
+        boolean matches(User authenticatedUser, String ipAddress) {
+            return Objects.equals(user.getId(), authenticatedUser.getId())
+                    && Objects.equals(user.getRole(), authenticatedUser.getRole())
+                    && Objects.equals(this.ipAddress, ipAddress);
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Objects.isNull;
+
+@Component
+public class LogSamplingPolicy {
+
+    private static final double DROPPED = 0;
+    private static final double KEPT = 1;
+
+    private final EndpointRollupService endpointRollupService;
+    private final double sampleRate;
+    private final long defaultSlowThresholdMs;
+    private final Map<String, Long> slowThresholds;
+
+    public LogSamplingPolicy(EndpointRollupService endpointRollupService, EnvConfiguration envConfiguration) {
+        this.endpointRollupService = endpointRollupService;
+        this.sampleRate = Math.min(Math.max(envConfiguration.getApiLogsSampleRate(), 0), 1);
+        this.defaultSlowThresholdMs = envConfiguration.getApiLogsSlowThresholdMs();
+        this.slowThresholds = buildSlowThresholds(envConfiguration.getApiLogsSlowThresholds());
+    }
+
+    public double samplingWeight(String method, String route, int statusCode, long responseTime, boolean failed) {
+        if (failed || statusCode >= 400 || responseTime >= slowThreshold(method, route)) {
+            return KEPT;
+        }
+
+        if (sampleRate >= 1) {
+            return KEPT;
+        }
+
+        return ThreadLocalRandom.current().nextDouble() < sampleRate ? 1 / sampleRate : DROPPED;
+    }
+
+    private long slowThreshold(String method, String route) {
+        Long configuredThreshold = slowThresholds.get(method + " " + route);
+        if (isNull(configuredThreshold)) {
+            configuredThreshold = slowThresholds.get(route);
+        }
+        if (!isNull(configuredThreshold)) {
+            return configuredThreshold;
+        }
+
+        long recentP95 = endpointRollupService.recentP95(method, route);
+        return recentP95 > 0 ? Math.min(recentP95, defaultSlowThresholdMs) : defaultSlowThresholdMs;
+    }
+
+    private Map<String, Long> buildSlowThresholds(List<String> configuredThresholds) {
+        Map<String, Long> thresholds = new HashMap<>();
+        if (isNull(configuredThresholds)) {
+            return thresholds;
+        }
+
+        for (String configuredThreshold : configuredThresholds) {
+            String threshold = configuredThreshold.trim();
+            if (threshold.isEmpty()) {
+                continue;
+            }
+
+            int separatorIndex = threshold.lastIndexOf('=');
+            if (separatorIndex < 0) {
+                throw new IllegalStateException("Invalid slow request threshold, expected '[METHOD ]/route/template=milliseconds': " + threshold);
+            }
+
+            thresholds.put(threshold.substring(0, separatorIndex).trim(), Long.parseLong(threshold.substring(separatorIndex + 1).trim()));
+        }
+        return thresholds;
+    }
+
+}
@@ -1,39 +1,54 @@
 package com.novus.api_gateway.service;
 
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import com.novus.api_gateway.configuration.DateConfiguration;
+import com.novus.api_gateway.configuration.ElasticsearchInitializer;
+import com.novus.api_gateway.configuration.EnvConfiguration;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import static java.util.Objects.isNull;
+
 @Service
 @RequiredArgsConstructor
 public class LoggingService {
 
-    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchBulkIndexer elasticsearchBulkIndexer;
     private final DateConfiguration dateConfiguration;
+    private final EndpointRollupService endpointRollupService;
+    private final EnvConfiguration envConfiguration;
+    private final LogSamplingPolicy logSamplingPolicy;
+
+    public void logApiRequest(String serviceName, String route, String path, String method, int statusCode, long responseTime, String error) {
+        if (envConfiguration.isApiRollupsEnabled()) {
+            endpointRollupService.record(serviceName, route, method, statusCode, responseTime);
+        }
+
+        if (!envConfiguration.isApiLogsRawEnabled()) {
+            return;
+        }
+
+        double samplingWeight = logSamplingPolicy.samplingWeight(method, route, statusCode, responseTime, !isNull(error));
+        if (samplingWeight == 0) {
+            return;
+        }
 
-    public void logApiRequest(String serviceName, String endpoint, String method, int statusCode, long responseTime) {
-        try {
-            Map<String, Object> document = new HashMap<>();
-            document.put("timestamp", dateConfiguration.newDate());
-            document.put("service", serviceName);
-            document.put("endpoint", endpoint);
-            document.put("method", method);
-            document.put("status_code", statusCode);
-            document.put("response_time_ms", responseTime);
-
-            elasticsearchClient.index(i -> i
-                    .index("api_logs")
-                    .document(document)
-            );
-
-        } catch (IOException e) {
-            System.err.println("Error logging to Elasticsearch: " + e.getMessage());
+        Map<String, Object> document = new HashMap<>();
+        document.put("timestamp", dateConfiguration.newDate());
+        document.put("service", serviceName);
+        document.put("endpoint", route);
+        document.put("path", path);
+        document.put("method", method);
+        document.put("status_code", statusCode);
+        document.put("response_time_ms", responseTime);
+        document.put("sampling_weight", samplingWeight);
+        if (!isNull(error)) {
+            document.put("error", error);
         }
+
+        elasticsearchBulkIndexer.index(ElasticsearchInitializer.API_LOGS_WRITE_ALIAS, document);
     }
 
 }
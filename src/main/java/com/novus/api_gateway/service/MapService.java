@@ -77,7 +77,12 @@ public class MapService {
                 .alerts(alertDaoUtils.findAlertsByPosition(request.getLatitude(), request.getLongitude()))
                 .build();
 
-        KafkaMessage kafkaMessage = producer.buildKafkaMessage(null, httpRequest, null);
+        Map<String, String> kafkaRequest = Map.of(
+                "latitude", String.valueOf(request.getLatitude()),
+                "longitude", String.valueOf(request.getLongitude())
+        );
+
+        KafkaMessage kafkaMessage = producer.buildKafkaMessage(null, httpRequest, kafkaRequest);
 
         producer.send(kafkaMessage, "map-service", "getAllAlertsByPosition");
 
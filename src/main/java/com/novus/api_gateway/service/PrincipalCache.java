@@ -0,0 +1,179 @@
+package com.novus.api_gateway.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.prometheus.SecurityMetrics;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import com.novus.shared_models.common.User.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+@Service
+@EnableScheduling
+public class PrincipalCache {
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private static final Set<String> USER_MUTATING_OPERATIONS = Set.of(
+            "updateAuthenticatedUserDetails",
+            "setUserProfileImage",
+            "deleteAuthenticatedUserAccount",
+            "deleteAdminAccount",
+            "resetPassword",
+            "confirmEmail",
+            "updateAuthenticatedUserNotificationPreferences",
+            "updateUserNavigationPreferences",
+            "saveNewUserFavoriteLocation",
+            "deleteUserFavoriteLocation",
+            "saveUserRoute"
+    );
+
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+    private final EnvConfiguration envConfiguration;
+    private final SecurityMetrics securityMetrics;
+    private final ObjectMapper objectMapper;
+
+    public PrincipalCache(EnvConfiguration envConfiguration, SecurityMetrics securityMetrics, ObjectMapper objectMapper) {
+        this.envConfiguration = envConfiguration;
+        this.securityMetrics = securityMetrics;
+        this.objectMapper = objectMapper;
+
+        securityMetrics.registerGauge("security.principal_cache.size",
+                "Number of entries currently held by the principal cache", entries, Map::size);
+    }
+
+    public Optional<User> get(String userId) {
+        CachedPrincipal cachedPrincipal = entries.get(userId);
+        if (isNull(cachedPrincipal) || cachedPrincipal.isTombstone() || cachedPrincipal.isExpiredAt(System.currentTimeMillis())) {
+            securityMetrics.getPrincipalCacheMissCounter().increment();
+            return Optional.empty();
+        }
+
+        try {
+            User user = objectMapper.readValue(cachedPrincipal.snapshot(), User.class);
+            securityMetrics.getPrincipalCacheHitCounter().increment();
+            return Optional.of(user);
+        } catch (IOException exception) {
+            log.warn("Unable to read cached principal {}: {}", userId, exception.getMessage());
+            entries.remove(userId, cachedPrincipal);
+            securityMetrics.getPrincipalCacheMissCounter().increment();
+            return Optional.empty();
+        }
+    }
+
+    public void put(User user) {
+        byte[] snapshot;
+        try {
+            snapshot = objectMapper.writeValueAsBytes(user);
+        } catch (JsonProcessingException exception) {
+            log.warn("Unable to cache principal {}: {}", user.getId(), exception.getMessage());
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        makeRoomFor(user.getId(), now);
+
+        long expiresAt = now + envConfiguration.getPrincipalCacheMaxStalenessMs();
+        entries.compute(user.getId(), (userId, current) ->
+                !isNull(current) && current.isTombstone() && !current.isExpiredAt(now) ? current : new CachedPrincipal(snapshot, expiresAt));
+    }
+
+    public void invalidate(String userId) {
+        if (isNull(userId)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        makeRoomFor(userId, now);
+
+        entries.put(userId, new CachedPrincipal(null, now + envConfiguration.getPrincipalCacheInvalidationHoldMs()));
+        securityMetrics.getPrincipalCacheInvalidationCounter().increment();
+    }
+
+    public void invalidateForEvent(KafkaMessage kafkaMessage, String operation) {
+        if (!USER_MUTATING_OPERATIONS.contains(operation)) {
+            return;
+        }
+
+        if (!isNull(kafkaMessage.getAuthenticatedUser())) {
+            invalidate(kafkaMessage.getAuthenticatedUser().getId());
+        }
+
+        if (!isNull(kafkaMessage.getRequest())) {
+            invalidate(kafkaMessage.getRequest().get("userId"));
+        }
+    }
+
+    @Scheduled(fixedRate = 30000)
+    public void removeExpiredEntries() {
+        long now = System.currentTimeMillis();
+        int sizeBefore = entries.size();
+
+        entries.values().removeIf(cachedPrincipal -> cachedPrincipal.isExpiredAt(now));
+
+        int removed = sizeBefore - entries.size();
+        if (removed > 0) {
+            log.debug("Principal cache cleanup removed {} expired principal(s), {} remaining", removed, entries.size());
+        }
+    }
+
+    private void makeRoomFor(String userId, long now) {
+        if (!entries.containsKey(userId) && entries.size() >= envConfiguration.getPrincipalCacheMaxSize()) {
+            evictOne(now);
+        }
+    }
+
+    private void evictOne(long now) {
+        Iterator<Map.Entry<String, CachedPrincipal>> iterator = entries.entrySet().iterator();
+        Map.Entry<String, CachedPrincipal> candidate = null;
+
+        for (int sampled = 0; sampled < EVICTION_SAMPLE_SIZE && iterator.hasNext(); sampled++) {
+            Map.Entry<String, CachedPrincipal> entry = iterator.next();
+            if (entry.getValue().isExpiredAt(now)) {
+                candidate = entry;
+                break;
+            }
+
+            if (isNull(candidate) || isPreferredEviction(entry.getValue(), candidate.getValue())) {
+                candidate = entry;
+            }
+        }
+
+        if (!isNull(candidate) && entries.remove(candidate.getKey(), candidate.getValue())) {
+            securityMetrics.getPrincipalCacheEvictionCounter().increment();
+        }
+    }
+
+    private static boolean isPreferredEviction(CachedPrincipal entry, CachedPrincipal candidate) {
+        if (entry.isTombstone() != candidate.isTombstone()) {
+            return candidate.isTombstone();
+        }
+        return entry.expiresAt() < candidate.expiresAt();
+    }
+
+    private record CachedPrincipal(byte[] snapshot, long expiresAt) {
+
+        boolean isTombstone() {
+            return isNull(snapshot);
+        }
+
+        boolean isExpiredAt(long now) {
+            return expiresAt <= now;
+        }
+
+    }
+
+}
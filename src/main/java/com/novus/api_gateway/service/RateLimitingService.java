@@ -1,53 +1,248 @@
 package com.novus.api_gateway.service;
 
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.prometheus.SecurityMetrics;
+import com.novus.api_gateway.utils.ClusterRateLimiter;
+import com.novus.api_gateway.utils.IpAddressParser;
+import com.novus.api_gateway.utils.RateLimitBackend;
+import com.novus.api_gateway.utils.RateLimitTable;
+import com.novus.api_gateway.utils.RouteTrie.Route;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
 
 @Service
 @Slf4j
 @EnableScheduling
 public class RateLimitingService {
 
-    private final Map<String, Integer> requestCounts = new ConcurrentHashMap<>();
-    private final Map<String, Long> blockExpirations = new ConcurrentHashMap<>();
-
-    private static final int MAX_REQUESTS = 60;
+    private static final long WINDOW_DURATION = 120000;
     private static final long BLOCK_DURATION = 600000;
+    private static final int DEFAULT_ROUTE_COST = 1;
+    private static final int SWEEPS_PER_TABLE_PASS = 60;
+    private static final long FNV_OFFSET_BASIS = 0xCBF2_9CE4_8422_2325L;
+    private static final long USER_KEY_OFFSET_BASIS = 0x6C62_272E_07BB_0142L;
+    private static final long FNV_PRIME = 0x0100_0000_01B3L;
+    private static final long CREDENTIALED_KEY_SALT = 0x9E37_79B9_7F4A_7C15L;
+    private static final String CLUSTER_MODE = "cluster";
+    private static final String UNMATCHED_ROUTE = "unmatched";
+    private static final long CLUSTER_FLUSH_SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final SecurityMetrics securityMetrics;
+    private final HeavyHitterService heavyHitterService;
+    private final RateLimitClass anonymousRateLimitClass;
+    private final RateLimitClass credentialedRateLimitClass;
+    private final RateLimitClass authenticatedRateLimitClass;
+    private final List<RouteCost> routeCosts;
+    private final Map<Route, Integer> routeCostCache = new ConcurrentHashMap<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ClusterRateLimiter clusterRateLimiter;
+    private final ScheduledExecutorService clusterFlusher;
 
-    public boolean isIpBlocked(String ipAddress) {
-        return blockExpirations.containsKey(ipAddress) &&
-                blockExpirations.get(ipAddress) > System.currentTimeMillis();
+    public RateLimitingService(EnvConfiguration envConfiguration, SecurityMetrics securityMetrics,
+                               HeavyHitterService heavyHitterService, RateLimitBackend rateLimitBackend) {
+        this.securityMetrics = securityMetrics;
+        this.heavyHitterService = heavyHitterService;
+        this.anonymousRateLimitClass = buildRateLimitClass("anonymous",
+                envConfiguration.getRateLimitAnonymousMaxRequests(), envConfiguration.getRateLimitTableCapacity(), 0L);
+        this.credentialedRateLimitClass = buildRateLimitClass("credentialed",
+                envConfiguration.getRateLimitCredentialedMaxRequests(), envConfiguration.getRateLimitTableCapacity(), CREDENTIALED_KEY_SALT);
+        this.authenticatedRateLimitClass = buildRateLimitClass("authenticated",
+                envConfiguration.getRateLimitAuthenticatedMaxRequests(), envConfiguration.getRateLimitTableCapacity(), 0L);
+        this.routeCosts = buildRouteCosts(envConfiguration.getRateLimitRouteCosts());
+        this.clusterRateLimiter = CLUSTER_MODE.equalsIgnoreCase(envConfiguration.getRateLimitMode())
+                ? new ClusterRateLimiter(rateLimitBackend, envConfiguration.getRateLimitTableCapacity() * 2, WINDOW_DURATION)
+                : null;
+        this.clusterFlusher = isNull(clusterRateLimiter) ? null : startClusterFlusher(envConfiguration.getRateLimitClusterFlushIntervalMs());
     }
 
-    public boolean incrementAndCheckLimit(String ipAddress) {
-        int count = requestCounts.getOrDefault(ipAddress, 0) + 1;
-        requestCounts.put(ipAddress, count);
-        return count > MAX_REQUESTS;
+    public boolean tryAcquireClient(Route route, String ipAddress, boolean presentsToken) {
+        RateLimitClass rateLimitClass = presentsToken ? credentialedRateLimitClass : anonymousRateLimitClass;
+        long ipKey = toIpRateLimitKey(ipAddress);
+        int cost = resolveRouteCost(route, rateLimitClass);
+
+        heavyHitterService.recordIp(ipKey, ipAddress, cost);
+        String routeLabel = isNull(route) ? UNMATCHED_ROUTE : route.key();
+        heavyHitterService.recordRoute(hash(routeLabel, FNV_OFFSET_BASIS), routeLabel, cost);
+
+        return tryAcquire(rateLimitClass, ipKey, cost);
     }
 
-    public void blockIpAddress(String ipAddress) {
-        blockExpirations.put(ipAddress, System.currentTimeMillis() + BLOCK_DURATION);
+    public boolean tryAcquireToken(Route route, String ipAddress, VerifiedToken verifiedToken) {
+        if (isNull(verifiedToken) || isNull(verifiedToken.getUserId())) {
+            return tryAcquire(anonymousRateLimitClass, toIpRateLimitKey(ipAddress), resolveRouteCost(route, anonymousRateLimitClass));
+        }
+
+        long userKey = toUserRateLimitKey(verifiedToken.getUserId());
+        int cost = resolveRouteCost(route, authenticatedRateLimitClass);
+        heavyHitterService.recordUser(userKey, verifiedToken.getUserId(), cost);
+
+        return tryAcquire(authenticatedRateLimitClass, userKey, cost);
     }
 
-    public void resetRequestCounts() {
-        requestCounts.clear();
-        blockExpirations.clear();
+    private boolean tryAcquire(RateLimitClass rateLimitClass, long baseKey, int cost) {
+        long key = baseKey ^ rateLimitClass.keySalt();
+        long now = System.currentTimeMillis();
+
+        if (!rateLimitClass.table().tryAcquire(key, now, rateLimitClass.emissionInterval() * cost, WINDOW_DURATION, BLOCK_DURATION)) {
+            return false;
+        }
+
+        if (isNull(clusterRateLimiter) || clusterRateLimiter.tryAcquire(key, now, rateLimitClass.emissionInterval(), cost)) {
+            return true;
+        }
+
+        rateLimitClass.table().block(key, now, BLOCK_DURATION);
+        securityMetrics.getRateLimitClusterRejectionCounter().increment();
+        return false;
     }
 
-    @Scheduled(fixedRate = 120000)
-    public void scheduledReset() {
-        int blockedIpCount = blockExpirations.size();
-        int requestCountSize = requestCounts.size();
+    @PreDestroy
+    public void close() {
+        if (isNull(clusterFlusher)) {
+            return;
+        }
+
+        clusterFlusher.shutdown();
+        try {
+            if (clusterFlusher.awaitTermination(CLUSTER_FLUSH_SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                flushClusterCounters();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushClusterCounters() {
+        long startTime = System.nanoTime();
+        try {
+            int flushed = clusterRateLimiter.flush();
+            if (flushed > 0) {
+                log.debug("🔄 Rate limit cluster sync | {} counter(s) pushed to the shared store", flushed);
+            }
+        } catch (RuntimeException exception) {
+            securityMetrics.getRateLimitClusterFlushFailureCounter().increment();
+            log.warn("🔄 Rate limit cluster sync failed, counters kept for the next attempt: {}", exception.getMessage());
+        } finally {
+            securityMetrics.recordPipelineStage(securityMetrics.getRateLimitClusterFlushTimer(), startTime);
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void evictExpiredStates() {
+        long now = System.currentTimeMillis();
+        evictExpiredStates(anonymousRateLimitClass, now);
+        evictExpiredStates(credentialedRateLimitClass, now);
+        evictExpiredStates(authenticatedRateLimitClass, now);
+    }
+
+    private ScheduledExecutorService startClusterFlusher(long flushInterval) {
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-cluster-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushClusterCounters, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        return flusher;
+    }
+
+    private void evictExpiredStates(RateLimitClass rateLimitClass, long now) {
+        RateLimitTable table = rateLimitClass.table();
+        int slotsPerSweep = Math.max(table.capacity() / SWEEPS_PER_TABLE_PASS, 1);
+        int cleared = table.sweepExpired(now, slotsPerSweep);
+
+        if (cleared > 0) {
+            log.debug("🔄 Rate limit eviction at: {} | {} bucket | {} expired slot(s) cleared | {}/{} slot(s) occupied",
+                    now, rateLimitClass.name(), cleared, table.occupiedSlots(), table.capacity());
+        }
+    }
 
-        resetRequestCounts();
+    private int resolveRouteCost(Route route, RateLimitClass rateLimitClass) {
+        if (isNull(route) || routeCosts.isEmpty()) {
+            return DEFAULT_ROUTE_COST;
+        }
+        return Math.min(routeCostCache.computeIfAbsent(route, this::matchRouteCost), rateLimitClass.maxRequests());
+    }
+
+    private int matchRouteCost(Route route) {
+        for (RouteCost routeCost : routeCosts) {
+            boolean methodMatches = isNull(routeCost.method()) || routeCost.method().equalsIgnoreCase(route.method());
+            if (methodMatches && pathMatcher.match(routeCost.pattern(), route.template())) {
+                return routeCost.cost();
+            }
+        }
+        return DEFAULT_ROUTE_COST;
+    }
+
+    private RateLimitClass buildRateLimitClass(String name, int maxRequests, int tableCapacity, long keySalt) {
+        RateLimitTable table = new RateLimitTable(tableCapacity);
+        securityMetrics.registerRateLimitTableGauges(name, table);
+        return new RateLimitClass(name, maxRequests, WINDOW_DURATION / maxRequests, keySalt, table);
+    }
+
+    private List<RouteCost> buildRouteCosts(List<String> configuredRouteCosts) {
+        if (isNull(configuredRouteCosts)) {
+            return List.of();
+        }
+
+        return configuredRouteCosts.stream()
+                .map(String::trim)
+                .filter(routeCost -> !routeCost.isEmpty())
+                .map(this::buildRouteCost)
+                .toList();
+    }
+
+    private RouteCost buildRouteCost(String routeCost) {
+        int costSeparatorIndex = routeCost.lastIndexOf('=');
+        if (costSeparatorIndex < 0) {
+            throw new IllegalStateException("Invalid rate-limit route cost, expected 'METHOD /path/pattern=cost': " + routeCost);
+        }
+
+        String route = routeCost.substring(0, costSeparatorIndex).trim();
+        int cost = Math.max(Integer.parseInt(routeCost.substring(costSeparatorIndex + 1).trim()), DEFAULT_ROUTE_COST);
+
+        int methodSeparatorIndex = route.indexOf(' ');
+        return methodSeparatorIndex < 0
+                ? new RouteCost(null, route, cost)
+                : new RouteCost(route.substring(0, methodSeparatorIndex), route.substring(methodSeparatorIndex + 1).trim(), cost);
+    }
+
+    private long toIpRateLimitKey(String ipAddress) {
+        IpAddressParser parser = IpAddressParser.forCurrentThread();
+        if (parser.parse(ipAddress, 0, ipAddress.length())) {
+            return parser.rateLimitKey();
+        }
+        return hash(ipAddress, FNV_OFFSET_BASIS);
+    }
+
+    private long toUserRateLimitKey(String userId) {
+        return hash(userId, USER_KEY_OFFSET_BASIS);
+    }
+
+    private static long hash(String value, long offsetBasis) {
+        long hash = offsetBasis;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private record RateLimitClass(String name, int maxRequests, long emissionInterval, long keySalt, RateLimitTable table) {
+    }
 
-        log.info("🔄 Rate limit reset at: {} | {} IP(s) unblocked | {} request count(s) reset",
-                System.currentTimeMillis(), blockedIpCount, requestCountSize);
+    private record RouteCost(String method, String pattern, int cost) {
     }
 
 }
@@ -0,0 +1,72 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.controller.AuthenticationController;
+import com.novus.api_gateway.controller.ContactController;
+import com.novus.api_gateway.controller.MapController;
+import com.novus.api_gateway.controller.NotificationController;
+import com.novus.api_gateway.controller.UserController;
+import com.novus.api_gateway.utils.RouteTrie;
+import com.novus.api_gateway.utils.RouteTrie.Route;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RouteRegistry implements SmartInitializingSingleton {
+
+    public static final String ROUTE_ATTRIBUTE = RouteRegistry.class.getName() + ".route";
+
+    public static final String GATEWAY_SERVICE = "api-gateway";
+
+    private static final Map<Class<?>, String> SERVICES_BY_CONTROLLER = Map.of(
+            AuthenticationController.class, "authentication-service",
+            UserController.class, "user-service",
+            NotificationController.class, "notification-service",
+            MapController.class, "map-service",
+            ContactController.class, "contact-service"
+    );
+
+    private final ApplicationContext applicationContext;
+
+    private volatile RouteTrie routeTrie = new RouteTrie();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RequestMappingHandlerMapping requestMappingHandlerMapping =
+                applicationContext.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+
+        RouteTrie trie = new RouteTrie();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : requestMappingHandlerMapping.getHandlerMethods().entrySet()) {
+            String service = SERVICES_BY_CONTROLLER.getOrDefault(entry.getValue().getBeanType(), GATEWAY_SERVICE);
+            Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+
+            for (String template : entry.getKey().getPatternValues()) {
+                if (methods.isEmpty()) {
+                    trie.add(null, template, service);
+                }
+                for (RequestMethod method : methods) {
+                    trie.add(method.name(), template, service);
+                }
+            }
+        }
+
+        this.routeTrie = trie;
+        log.info("🔄 Route registry built with {} route(s)", trie.routes().size());
+    }
+
+    public Route resolve(String method, String path) {
+        return routeTrie.resolve(method, path);
+    }
+
+}
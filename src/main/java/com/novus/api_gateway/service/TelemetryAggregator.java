@@ -0,0 +1,98 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.utils.TelemetryAccumulator;
+import com.novus.api_gateway.utils.TelemetryAccumulator.Summary;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+
+@Component
+public class TelemetryAggregator {
+
+    private static final int MAX_DIMENSIONS_PER_OPERATION = 5000;
+    private static final String SUMMARY_OPERATION_SUFFIX = "Summary";
+    private static final String ANONYMOUS_DIMENSION = "anonymous";
+
+    private final Set<String> aggregatedOperations;
+    private final TelemetryAccumulator accumulator = new TelemetryAccumulator(MAX_DIMENSIONS_PER_OPERATION);
+    private volatile long windowStart = System.currentTimeMillis();
+
+    public TelemetryAggregator(EnvConfiguration envConfiguration) {
+        this.aggregatedOperations = buildAggregatedOperations(envConfiguration);
+    }
+
+    public boolean aggregate(KafkaMessage kafkaMessage, String topic, String operation) {
+        if (!aggregatedOperations.contains(operation)) {
+            return false;
+        }
+
+        accumulator.record(topic, operation, resolveDimension(kafkaMessage));
+        return true;
+    }
+
+    public List<SummaryEvent> drain() {
+        long windowEnd = System.currentTimeMillis();
+        long drainedWindowStart = windowStart;
+        windowStart = windowEnd;
+
+        return accumulator.drain().stream()
+                .map(summary -> toSummaryEvent(summary, drainedWindowStart, windowEnd))
+                .toList();
+    }
+
+    private SummaryEvent toSummaryEvent(Summary summary, long windowStart, long windowEnd) {
+        Map<String, String> request = new LinkedHashMap<>();
+        request.put("windowStart", String.valueOf(windowStart));
+        request.put("windowEnd", String.valueOf(windowEnd));
+        request.put("eventCount", String.valueOf(summary.eventCount()));
+        summary.countsByDimension().forEach((dimension, count) -> request.put(dimension, String.valueOf(count)));
+
+        KafkaMessage kafkaMessage = KafkaMessage.builder()
+                .request(request)
+                .timeStamp(String.valueOf(windowEnd))
+                .build();
+
+        return new SummaryEvent(kafkaMessage, summary.topic(), summary.operation() + SUMMARY_OPERATION_SUFFIX, summary.eventCount());
+    }
+
+    private String resolveDimension(KafkaMessage kafkaMessage) {
+        Map<String, String> request = kafkaMessage.getRequest();
+        if (!isNull(request) && !isNull(request.get("latitude")) && !isNull(request.get("longitude"))) {
+            String geoCell = KafkaPartitionKeyResolver.toGeoCell(request.get("latitude"), request.get("longitude"));
+            if (!isNull(geoCell)) {
+                return geoCell;
+            }
+        }
+
+        if (!isNull(kafkaMessage.getAuthenticatedUser()) && !isNull(kafkaMessage.getAuthenticatedUser().getId())) {
+            return "user:" + kafkaMessage.getAuthenticatedUser().getId();
+        }
+
+        return ANONYMOUS_DIMENSION;
+    }
+
+    private Set<String> buildAggregatedOperations(EnvConfiguration envConfiguration) {
+        if (!envConfiguration.isKafkaTelemetryAggregationEnabled() || isNull(envConfiguration.getKafkaTelemetryOperations())) {
+            return Set.of();
+        }
+
+        Set<String> operations = new HashSet<>();
+        envConfiguration.getKafkaTelemetryOperations().forEach(operation -> operations.add(operation.trim()));
+        if (!isNull(envConfiguration.getKafkaRawEventOperations())) {
+            envConfiguration.getKafkaRawEventOperations().forEach(operation -> operations.remove(operation.trim()));
+        }
+        return Set.copyOf(operations);
+    }
+
+    public record SummaryEvent(KafkaMessage kafkaMessage, String topic, String operation, long eventCount) {
+    }
+
+}
@@ -12,11 +12,15 @@ import org.springframework.stereotype.Service;
 public class TestService {
 
     private final UserDaoUtils userDaoUtils;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
     public ResponseEntity<String> setUserAsSuperAdmin(User authenticatedUser) {
         authenticatedUser.setRole(UserRole.SUPER_ADMIN);
 
         userDaoUtils.save(authenticatedUser);
+        principalCache.invalidate(authenticatedUser.getId());
+        tokenRevocationService.revokeTokensOf(authenticatedUser.getId());
 
         return ResponseEntity.ok("Ok");
     }
@@ -0,0 +1,148 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.DateConfiguration;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.utils.TokenRevocationBackend;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+@Slf4j
+@Service
+@EnableScheduling
+public class TokenRevocationService {
+
+    private static final Set<String> CLAIMS_REVOKING_OPERATIONS = Set.of(
+            "updateAuthenticatedUserDetails",
+            "deleteAuthenticatedUserAccount",
+            "deleteAdminAccount"
+    );
+    private static final long SYNC_OVERLAP_MS = 60000;
+
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final Map<String, Long> unpublished = new ConcurrentHashMap<>();
+    private final DateConfiguration dateConfiguration;
+    private final TokenRevocationBackend tokenRevocationBackend;
+    private final ScheduledExecutorService synchronizer;
+
+    private volatile long syncedUntil;
+
+    public TokenRevocationService(DateConfiguration dateConfiguration, TokenRevocationBackend tokenRevocationBackend,
+                                  EnvConfiguration envConfiguration) {
+        this.dateConfiguration = dateConfiguration;
+        this.tokenRevocationBackend = tokenRevocationBackend;
+        this.syncedUntil = oldestLiveToken();
+
+        this.synchronizer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long syncInterval = envConfiguration.getJwtRevocationSyncIntervalMs();
+        this.synchronizer.scheduleWithFixedDelay(this::synchronize, 0, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void revokeTokensOf(String userId) {
+        if (isNull(userId)) {
+            return;
+        }
+
+        long revocationTime = dateConfiguration.newDate().getTime();
+        revokedBefore.merge(userId, revocationTime, Math::max);
+        unpublished.merge(userId, revocationTime, Math::max);
+        synchronizer.execute(this::publishRevocations);
+    }
+
+    public void revokeForEvent(KafkaMessage kafkaMessage, String operation) {
+        if (!CLAIMS_REVOKING_OPERATIONS.contains(operation)) {
+            return;
+        }
+
+        if (!isNull(kafkaMessage.getAuthenticatedUser())) {
+            revokeTokensOf(kafkaMessage.getAuthenticatedUser().getId());
+        }
+
+        if (!isNull(kafkaMessage.getRequest())) {
+            revokeTokensOf(kafkaMessage.getRequest().get("userId"));
+        }
+    }
+
+    public boolean isRevoked(String userId, Date issuedAt) {
+        Long revocationTime = revokedBefore.get(userId);
+        if (isNull(revocationTime)) {
+            return false;
+        }
+
+        return isNull(issuedAt) || issuedAt.getTime() <= revocationTime;
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void removeOutdatedRevocations() {
+        long oldestLiveToken = oldestLiveToken();
+        int sizeBefore = revokedBefore.size();
+
+        revokedBefore.values().removeIf(revocationTime -> revocationTime < oldestLiveToken);
+
+        int removed = sizeBefore - revokedBefore.size();
+        if (removed > 0) {
+            log.info("🔄 Token revocation cleanup: {} outdated revocation(s) removed | {} active", removed, revokedBefore.size());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronizer.shutdown();
+        try {
+            synchronizer.awaitTermination(SYNC_OVERLAP_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void synchronize() {
+        publishRevocations();
+
+        try {
+            long since = syncedUntil - SYNC_OVERLAP_MS;
+            long latest = syncedUntil;
+            for (Map.Entry<String, Long> revocation : tokenRevocationBackend.revokedSince(since).entrySet()) {
+                revokedBefore.merge(revocation.getKey(), revocation.getValue(), Math::max);
+                latest = Math.max(latest, revocation.getValue());
+            }
+            syncedUntil = latest;
+        } catch (RuntimeException exception) {
+            log.warn("🔄 Could not load token revocations from the shared store: {}", exception.getMessage());
+        }
+    }
+
+    private void publishRevocations() {
+        long expiresAt = dateConfiguration.newDate().getTime() + JwtTokenService.TOKEN_EXPIRATION_TIME;
+        for (Map.Entry<String, Long> revocation : unpublished.entrySet()) {
+            try {
+                tokenRevocationBackend.revoke(revocation.getKey(), revocation.getValue(), expiresAt);
+                unpublished.remove(revocation.getKey(), revocation.getValue());
+            } catch (RuntimeException exception) {
+                log.warn("🔄 Could not publish token revocation, retrying on the next sync: {}", exception.getMessage());
+                return;
+            }
+        }
+    }
+
+    private long oldestLiveToken() {
+        return dateConfiguration.newDate().getTime() - JwtTokenService.TOKEN_EXPIRATION_TIME;
+    }
+
+}
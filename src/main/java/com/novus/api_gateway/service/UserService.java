@@ -45,6 +45,8 @@ public class UserService {
     private final UserDaoUtils userDaoUtils;
     private final AdminDashboardDaoUtils adminDashboardDaoUtils;
     private final ImageUtils imageUtils;
+    private final LocationUpdateCoalescer locationUpdateCoalescer;
+    private final ClientIpResolver clientIpResolver;
 
     @Scheduled(fixedRate = 120000)
     public void RefreshUserActivity() {
@@ -266,6 +268,11 @@ public class UserService {
     }
 
     public ResponseEntity<String> updateUserLocation(UpdateUserLocationRequest request, User authenticatedUser, HttpServletRequest httpRequest) {
+        if (locationUpdateCoalescer.offer(authenticatedUser, clientIpResolver.resolve(httpRequest),
+                request.getLocation().getLatitude(), request.getLocation().getLongitude())) {
+            return ResponseEntity.status(HttpStatus.OK).body("Your location has been successfully updated. This will help provide more accurate navigation and alerts.");
+        }
+
         Map<String, String> kafkaRequest = Map.of(
                 "latitude", String.valueOf(request.getLocation().getLatitude()),
                 "longitude", String.valueOf(request.getLocation().getLongitude())
@@ -0,0 +1,48 @@
+package com.novus.api_gateway.service;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+
+@Getter
+@RequiredArgsConstructor
+public class VerifiedToken {
+
+    public static final String ROLE_CLAIM = "role";
+    public static final String USERNAME_CLAIM = "username";
+
+    private final String token;
+    private final Claims claims;
+
+    public String getUserId() {
+        return claims.getSubject();
+    }
+
+    public String getRole() {
+        return claims.get(ROLE_CLAIM, String.class);
+    }
+
+    public String getUsername() {
+        return claims.get(USERNAME_CLAIM, String.class);
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public boolean isSelfContained() {
+        return getRole() != null && getUsername() != null;
+    }
+
+    public boolean isOfType(String type) {
+        return type.equals(claims.get("type"));
+    }
+
+    public boolean isNotExpiredAt(Date date) {
+        Date expirationDate = claims.getExpiration();
+        return expirationDate != null && expirationDate.after(date);
+    }
+
+}
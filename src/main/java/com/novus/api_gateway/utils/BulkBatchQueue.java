@@ -0,0 +1,109 @@
+package com.novus.api_gateway.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+public final class BulkBatchQueue<T> {
+
+    private static final long JOIN_TIMEOUT_MS = 1000;
+
+    private final ArrayBlockingQueue<T> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+    private final Consumer<List<T>> flusher;
+    private final Thread flushThread;
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+
+    public BulkBatchQueue(String name, int capacity, int maxBatchSize, long flushIntervalMs, Consumer<List<T>> flusher) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.flushIntervalMs = Math.max(flushIntervalMs, 1);
+        this.flusher = flusher;
+        this.flushThread = new Thread(this::run, name);
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    public boolean offer(T item) {
+        return accepting && queue.offer(item);
+    }
+
+    public T pollOldest() {
+        return queue.poll();
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public void shutdown(long drainTimeoutMs) {
+        accepting = false;
+
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (!queue.isEmpty() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(flushIntervalMs);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        running = false;
+        try {
+            flushThread.join(JOIN_TIMEOUT_MS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        int abandoned = queue.size();
+        if (abandoned > 0) {
+            log.warn("🔄 Bulk queue shut down with {} item(s) still queued", abandoned);
+        }
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(maxBatchSize);
+
+        while (running) {
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+
+                    T item = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (item == null) {
+                        break;
+                    }
+                    batch.add(item);
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            try {
+                flusher.accept(List.copyOf(batch));
+            } catch (RuntimeException exception) {
+                log.error("🔄 Bulk flush failed: {}", exception.getMessage(), exception);
+            }
+            batch.clear();
+        }
+    }
+
+}
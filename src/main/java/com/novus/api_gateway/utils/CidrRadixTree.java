@@ -0,0 +1,174 @@
+package com.novus.api_gateway.utils;
+
+import java.util.List;
+
+public final class CidrRadixTree {
+
+    private static final int ADDRESS_BITS = 128;
+    private static final int IPV4_MAPPED_PREFIX_BITS = 96;
+
+    private final Node root = new Node(0, 0, 0);
+    private int size;
+
+    public static CidrRadixTree of(List<String> cidrs) {
+        CidrRadixTree tree = new CidrRadixTree();
+        if (cidrs != null) {
+            for (String cidr : cidrs) {
+                if (!cidr.isBlank()) {
+                    tree.add(cidr.trim());
+                }
+            }
+        }
+        return tree;
+    }
+
+    public void add(String cidr) {
+        int separatorIndex = cidr.indexOf('/');
+        int addressEnd = separatorIndex < 0 ? cidr.length() : separatorIndex;
+
+        IpAddressParser parser = IpAddressParser.forCurrentThread();
+        if (!parser.parse(cidr, 0, addressEnd)) {
+            throw new IllegalArgumentException("Invalid CIDR address: " + cidr);
+        }
+
+        int maxPrefixLength = parser.isIpv4() ? ADDRESS_BITS - IPV4_MAPPED_PREFIX_BITS : ADDRESS_BITS;
+        int prefixLength = maxPrefixLength;
+        if (separatorIndex >= 0) {
+            try {
+                prefixLength = Integer.parseInt(cidr.substring(separatorIndex + 1).trim());
+            } catch (NumberFormatException exception) {
+                throw new IllegalArgumentException("Invalid CIDR prefix length: " + cidr);
+            }
+        }
+        if (prefixLength < 0 || prefixLength > maxPrefixLength) {
+            throw new IllegalArgumentException("Invalid CIDR prefix length: " + cidr);
+        }
+
+        insert(parser.getHigh(), parser.getLow(), parser.isIpv4() ? IPV4_MAPPED_PREFIX_BITS + prefixLength : prefixLength);
+    }
+
+    public boolean contains(CharSequence address, int from, int to) {
+        IpAddressParser parser = IpAddressParser.forCurrentThread();
+        return parser.parse(address, from, to) && contains(parser.getHigh(), parser.getLow());
+    }
+
+    public boolean contains(long high, long low) {
+        Node node = root;
+        while (node != null) {
+            if (commonPrefixLength(node.high, node.low, high, low) < node.prefixLength) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+            if (node.prefixLength == ADDRESS_BITS) {
+                return false;
+            }
+            node = bit(high, low, node.prefixLength) == 0 ? node.zero : node.one;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void insert(long high, long low, int prefixLength) {
+        high = maskHigh(high, prefixLength);
+        low = maskLow(low, prefixLength);
+        size++;
+
+        Node node = root;
+        while (true) {
+            if (node.prefixLength == prefixLength) {
+                node.terminal = true;
+                return;
+            }
+
+            int branch = bit(high, low, node.prefixLength);
+            Node child = branch == 0 ? node.zero : node.one;
+            if (child == null) {
+                setChild(node, branch, terminalNode(high, low, prefixLength));
+                return;
+            }
+
+            int common = Math.min(commonPrefixLength(child.high, child.low, high, low), Math.min(child.prefixLength, prefixLength));
+            if (common == child.prefixLength) {
+                node = child;
+                continue;
+            }
+
+            Node split = new Node(maskHigh(high, common), maskLow(low, common), common);
+            setChild(split, bit(child.high, child.low, common), child);
+            if (common == prefixLength) {
+                split.terminal = true;
+            } else {
+                setChild(split, bit(high, low, common), terminalNode(high, low, prefixLength));
+            }
+            setChild(node, branch, split);
+            return;
+        }
+    }
+
+    private static Node terminalNode(long high, long low, int prefixLength) {
+        Node node = new Node(high, low, prefixLength);
+        node.terminal = true;
+        return node;
+    }
+
+    private static void setChild(Node node, int branch, Node child) {
+        if (branch == 0) {
+            node.zero = child;
+        } else {
+            node.one = child;
+        }
+    }
+
+    private static int bit(long high, long low, int index) {
+        return index < 64 ? (int) (high >>> (63 - index)) & 1 : (int) (low >>> (127 - index)) & 1;
+    }
+
+    private static int commonPrefixLength(long leftHigh, long leftLow, long rightHigh, long rightLow) {
+        long highDifference = leftHigh ^ rightHigh;
+        if (highDifference != 0) {
+            return Long.numberOfLeadingZeros(highDifference);
+        }
+        return 64 + Long.numberOfLeadingZeros(leftLow ^ rightLow);
+    }
+
+    private static long maskHigh(long high, int prefixLength) {
+        if (prefixLength >= 64) {
+            return high;
+        }
+        return prefixLength == 0 ? 0 : high & (-1L << (64 - prefixLength));
+    }
+
+    private static long maskLow(long low, int prefixLength) {
+        if (prefixLength <= 64) {
+            return 0;
+        }
+        return prefixLength == ADDRESS_BITS ? low : low & (-1L << (ADDRESS_BITS - prefixLength));
+    }
+
+    private static final class Node {
+
+        private final long high;
+        private final long low;
+        private final int prefixLength;
+        private boolean terminal;
+        private Node zero;
+        private Node one;
+
+        private Node(long high, long low, int prefixLength) {
+            this.high = high;
+            this.low = low;
+            this.prefixLength = prefixLength;
+        }
+
+    }
+
+}
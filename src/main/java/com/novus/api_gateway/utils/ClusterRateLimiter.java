@@ -0,0 +1,212 @@
+package com.novus.api_gateway.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class ClusterRateLimiter {
+
+    private static final long EMPTY_KEY = 0L;
+    private static final long SUBSTITUTE_KEY = 1L;
+    private static final int MAX_PROBES = 16;
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    private final RateLimitBackend backend;
+    private final long windowDuration;
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray windows;
+    private final AtomicLongArray pendingDeltas;
+    private final AtomicLongArray currentTotals;
+    private final AtomicLongArray previousTotals;
+    private final AtomicLongArray carriedDeltas;
+    private final AtomicLongArray carriedWindows;
+
+    private final int[] flushSlots = new int[FLUSH_BATCH_SIZE];
+    private final long[] flushKeys = new long[FLUSH_BATCH_SIZE];
+    private final long[] flushWindows = new long[FLUSH_BATCH_SIZE];
+    private final long[] flushDeltas = new long[FLUSH_BATCH_SIZE];
+    private final boolean[] flushCarried = new boolean[FLUSH_BATCH_SIZE];
+
+    public ClusterRateLimiter(RateLimitBackend backend, int capacity, long windowDuration) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBES) - 1) << 1;
+        this.backend = backend;
+        this.windowDuration = windowDuration;
+        this.mask = size - 1;
+        this.keys = new AtomicLongArray(size);
+        this.windows = new AtomicLongArray(size);
+        this.pendingDeltas = new AtomicLongArray(size);
+        this.currentTotals = new AtomicLongArray(size);
+        this.previousTotals = new AtomicLongArray(size);
+        this.carriedDeltas = new AtomicLongArray(size);
+        this.carriedWindows = new AtomicLongArray(size);
+    }
+
+    public boolean tryAcquire(long key, long now, long emissionInterval, long cost) {
+        long window = now / windowDuration;
+        int slot = findOrClaimSlot(key == EMPTY_KEY ? SUBSTITUTE_KEY : key, window);
+        if (slot < 0) {
+            return true;
+        }
+
+        rollOver(slot, window);
+
+        double previousWindowWeight = 1.0 - (double) (now - window * windowDuration) / windowDuration;
+        long estimate = (long) (previousTotals.get(slot) * previousWindowWeight)
+                + currentTotals.get(slot) + pendingDeltas.get(slot) + cost;
+
+        if (estimate > windowDuration / emissionInterval) {
+            return false;
+        }
+
+        pendingDeltas.addAndGet(slot, cost);
+        return true;
+    }
+
+    public int flush() {
+        int flushed = 0;
+        int batchSize = 0;
+
+        for (int slot = 0; slot <= mask; slot++) {
+            if (carriedDeltas.get(slot) != 0) {
+                long carriedDelta = carriedDeltas.getAndSet(slot, 0);
+                if (carriedDelta != 0) {
+                    batchSize = addToBatch(batchSize, slot, carriedWindows.get(slot), carriedDelta, true);
+                }
+            }
+
+            if (batchSize == FLUSH_BATCH_SIZE) {
+                flushed += flushBatch(batchSize);
+                batchSize = 0;
+            }
+
+            if (pendingDeltas.get(slot) != 0) {
+                long delta = pendingDeltas.getAndSet(slot, 0);
+                if (delta != 0) {
+                    batchSize = addToBatch(batchSize, slot, windows.get(slot), delta, false);
+                }
+            }
+
+            if (batchSize == FLUSH_BATCH_SIZE) {
+                flushed += flushBatch(batchSize);
+                batchSize = 0;
+            }
+        }
+
+        if (batchSize > 0) {
+            flushed += flushBatch(batchSize);
+        }
+        return flushed;
+    }
+
+    private int addToBatch(int batchSize, int slot, long window, long delta, boolean carried) {
+        flushSlots[batchSize] = slot;
+        flushKeys[batchSize] = keys.get(slot);
+        flushWindows[batchSize] = window;
+        flushDeltas[batchSize] = delta;
+        flushCarried[batchSize] = carried;
+        return batchSize + 1;
+    }
+
+    private int flushBatch(int batchSize) {
+        long[] totals;
+        try {
+            totals = backend.addAndGet(flushKeys, flushWindows, flushDeltas, batchSize, windowDuration);
+        } catch (RuntimeException exception) {
+            for (int i = 0; i < batchSize; i++) {
+                restoreDelta(i);
+            }
+            throw exception;
+        }
+
+        for (int i = 0; i < batchSize; i++) {
+            int slot = flushSlots[i];
+            if (keys.get(slot) != flushKeys[i]) {
+                continue;
+            }
+
+            long slotWindow = windows.get(slot);
+            if (slotWindow == flushWindows[i]) {
+                currentTotals.set(slot, totals[i]);
+            } else if (slotWindow == flushWindows[i] + 1) {
+                previousTotals.set(slot, totals[i]);
+            }
+        }
+        return batchSize;
+    }
+
+    private void restoreDelta(int index) {
+        int slot = flushSlots[index];
+        if (keys.get(slot) != flushKeys[index]) {
+            return;
+        }
+
+        long slotWindow = windows.get(slot);
+        if (!flushCarried[index] && slotWindow == flushWindows[index]) {
+            pendingDeltas.addAndGet(slot, flushDeltas[index]);
+        } else if (slotWindow == flushWindows[index] + 1) {
+            carriedWindows.set(slot, flushWindows[index]);
+            carriedDeltas.addAndGet(slot, flushDeltas[index]);
+        }
+    }
+
+    private void rollOver(int slot, long window) {
+        long slotWindow = windows.get(slot);
+        if (slotWindow == window || !windows.compareAndSet(slot, slotWindow, window)) {
+            return;
+        }
+
+        long unflushedDelta = pendingDeltas.getAndSet(slot, 0);
+        long lastKnownTotal = currentTotals.getAndSet(slot, 0) + unflushedDelta;
+        if (slotWindow == window - 1) {
+            previousTotals.set(slot, lastKnownTotal);
+            if (unflushedDelta != 0) {
+                if (carriedWindows.get(slot) != slotWindow) {
+                    carriedDeltas.set(slot, 0);
+                    carriedWindows.set(slot, slotWindow);
+                }
+                carriedDeltas.addAndGet(slot, unflushedDelta);
+            }
+        } else {
+            previousTotals.set(slot, 0);
+            carriedDeltas.set(slot, 0);
+        }
+    }
+
+    private int findOrClaimSlot(long key, long window) {
+        int start = spread(key) & mask;
+        int firstReusable = -1;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            long current = keys.get(slot);
+            if (current == key) {
+                return slot;
+            }
+            if (firstReusable < 0 && (current == EMPTY_KEY || windows.get(slot) < window - 1)) {
+                firstReusable = slot;
+            }
+        }
+
+        if (firstReusable < 0) {
+            return -1;
+        }
+
+        long current = keys.get(firstReusable);
+        if (!keys.compareAndSet(firstReusable, current, key)) {
+            return keys.get(firstReusable) == key ? firstReusable : -1;
+        }
+
+        pendingDeltas.set(firstReusable, 0);
+        carriedDeltas.set(firstReusable, 0);
+        currentTotals.set(firstReusable, 0);
+        previousTotals.set(firstReusable, 0);
+        windows.set(firstReusable, window);
+        return firstReusable;
+    }
+
+    private static int spread(long key) {
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.novus.api_gateway.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+@Slf4j
+public final class EventDispatchQueue<T> {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final List<ArrayBlockingQueue<PendingEntry<T>>> lanes;
+    private final List<Thread> senders;
+    private final Consumer<T> handler;
+    private final LongConsumer handoffRecorder;
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+
+    public EventDispatchQueue(String name, int capacity, int senderThreads, Consumer<T> handler, LongConsumer handoffRecorder) {
+        int laneCount = Math.max(senderThreads, 1);
+        int laneCapacity = Math.max(capacity / laneCount, 1);
+
+        this.handler = handler;
+        this.handoffRecorder = handoffRecorder;
+        this.lanes = new ArrayList<>(laneCount);
+        this.senders = new ArrayList<>(laneCount);
+
+        for (int lane = 0; lane < laneCount; lane++) {
+            ArrayBlockingQueue<PendingEntry<T>> queue = new ArrayBlockingQueue<>(laneCapacity);
+            Thread sender = new Thread(() -> drain(queue), name + "-" + lane);
+            sender.setDaemon(true);
+            lanes.add(queue);
+            senders.add(sender);
+        }
+        senders.forEach(Thread::start);
+    }
+
+    public boolean offer(T event, int routingHash) {
+        if (!accepting) {
+            return false;
+        }
+
+        int lane = Math.floorMod(routingHash, lanes.size());
+        return lanes.get(lane).offer(new PendingEntry<>(event, System.nanoTime()));
+    }
+
+    public int depth() {
+        int depth = 0;
+        for (ArrayBlockingQueue<PendingEntry<T>> lane : lanes) {
+            depth += lane.size();
+        }
+        return depth;
+    }
+
+    public void shutdown(long drainTimeoutMs, Consumer<T> leftoverHandler) {
+        accepting = false;
+
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (depth() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_TIMEOUT_MS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        running = false;
+        for (Thread sender : senders) {
+            try {
+                sender.join(POLL_TIMEOUT_MS * 2);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int leftover = 0;
+        for (ArrayBlockingQueue<PendingEntry<T>> lane : lanes) {
+            PendingEntry<T> entry;
+            while ((entry = lane.poll()) != null) {
+                leftover++;
+                try {
+                    leftoverHandler.accept(entry.event());
+                } catch (RuntimeException exception) {
+                    log.error("🔄 Event dispatch leftover handler failed: {}", exception.getMessage(), exception);
+                }
+            }
+        }
+
+        if (leftover > 0) {
+            log.warn("🔄 Event dispatch shut down with {} event(s) still queued, handed them to the leftover handler", leftover);
+        }
+    }
+
+    private void drain(ArrayBlockingQueue<PendingEntry<T>> queue) {
+        while (running) {
+            PendingEntry<T> entry;
+            try {
+                entry = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (entry == null) {
+                continue;
+            }
+
+            handoffRecorder.accept(System.nanoTime() - entry.enqueuedAt());
+            try {
+                handler.accept(entry.event());
+            } catch (RuntimeException exception) {
+                log.error("🔄 Event dispatch handler failed: {}", exception.getMessage(), exception);
+            }
+        }
+    }
+
+    private record PendingEntry<T>(T event, long enqueuedAt) {
+    }
+
+}
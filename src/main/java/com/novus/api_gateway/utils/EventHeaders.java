@@ -0,0 +1,52 @@
+package com.novus.api_gateway.utils;
+
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Objects.isNull;
+
+public final class EventHeaders {
+
+    public static final String OPERATION = "operation";
+    public static final String USER_ID = "userId";
+    public static final String IP_ADDRESS = "ipAddress";
+    public static final String TIMESTAMP = "timestamp";
+    public static final String SCHEMA_VERSION = "schemaVersion";
+    public static final String CONTENT_TYPE = "contentType";
+
+    public static final int ENVELOPE_SCHEMA_VERSION = 1;
+    public static final int HEADER_METADATA_SCHEMA_VERSION = 2;
+
+    private EventHeaders() {
+    }
+
+    public static void write(Headers headers, int schemaVersion, String operation, String userId, String ipAddress, long timestamp) {
+        headers.add(SCHEMA_VERSION, ByteBuffer.allocate(Integer.BYTES).putInt(schemaVersion).array());
+        headers.add(OPERATION, operation.getBytes(StandardCharsets.UTF_8));
+        headers.add(TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(timestamp).array());
+
+        if (!isNull(userId)) {
+            headers.add(USER_ID, userId.getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (!isNull(ipAddress)) {
+            headers.add(IP_ADDRESS, encodeIpAddress(ipAddress));
+        }
+    }
+
+    private static byte[] encodeIpAddress(String ipAddress) {
+        IpAddressParser parser = IpAddressParser.forCurrentThread();
+        if (!parser.parse(ipAddress, 0, ipAddress.length())) {
+            return ipAddress.getBytes(StandardCharsets.UTF_8);
+        }
+
+        if (parser.isIpv4()) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt((int) parser.getLow()).array();
+        }
+
+        return ByteBuffer.allocate(2 * Long.BYTES).putLong(parser.getHigh()).putLong(parser.getLow()).array();
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.novus.api_gateway.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class HeavyHitterTracker {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final long[] ROW_SEEDS = {
+            0x9E37_79B9_7F4A_7C15L, 0xC2B2_AE3D_27D4_EB4FL, 0x1656_67B1_9E37_79F9L, 0xFF51_AFD7_ED55_8CCDL
+    };
+
+    private final int widthMask;
+    private final AtomicLongArray sketch;
+    private final long[] topKeys;
+    private final String[] topLabels;
+    private final long[] topCounts;
+    private int topOccupied;
+    private volatile long[] topKeySnapshot = new long[0];
+    private volatile long admissionThreshold;
+
+    public HeavyHitterTracker(int sketchWidth, int topSize) {
+        int width = Integer.highestOneBit(Math.max(sketchWidth, 2) - 1) << 1;
+        this.widthMask = width - 1;
+        this.sketch = new AtomicLongArray(SKETCH_DEPTH * width);
+        this.topKeys = new long[topSize];
+        this.topLabels = new String[topSize];
+        this.topCounts = new long[topSize];
+    }
+
+    public void record(long key, String label, long weight) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            estimate = Math.min(estimate, sketch.addAndGet(sketchIndex(key, row), weight));
+        }
+
+        if (estimate > admissionThreshold && !isTopKey(key)) {
+            offer(key, label, estimate);
+        }
+    }
+
+    public synchronized void decay() {
+        for (int index = 0; index < sketch.length(); index++) {
+            long count = sketch.get(index);
+            if (count != 0) {
+                sketch.addAndGet(index, -(count - (count >>> 1)));
+            }
+        }
+
+        int kept = 0;
+        for (int slot = 0; slot < topOccupied; slot++) {
+            long count = estimate(topKeys[slot]);
+            if (count > 0) {
+                topKeys[kept] = topKeys[slot];
+                topLabels[kept] = topLabels[slot];
+                topCounts[kept] = count;
+                kept++;
+            }
+        }
+        for (int slot = kept; slot < topOccupied; slot++) {
+            topLabels[slot] = null;
+        }
+        topOccupied = kept;
+        topKeySnapshot = Arrays.copyOf(topKeys, topOccupied);
+        updateAdmissionThreshold();
+    }
+
+    public synchronized List<HeavyHitter> topHitters() {
+        refreshTopCounts();
+        List<HeavyHitter> heavyHitters = new ArrayList<>(topOccupied);
+        for (int slot = 0; slot < topOccupied; slot++) {
+            heavyHitters.add(new HeavyHitter(topLabels[slot], topCounts[slot]));
+        }
+        heavyHitters.sort(Comparator.comparingLong(HeavyHitter::estimatedCount).reversed());
+        return heavyHitters;
+    }
+
+    public synchronized long countAtRank(int rank) {
+        if (rank < 1 || rank > topOccupied) {
+            return 0;
+        }
+
+        refreshTopCounts();
+        long[] counts = new long[topOccupied];
+        System.arraycopy(topCounts, 0, counts, 0, topOccupied);
+        Arrays.sort(counts);
+        return counts[topOccupied - rank];
+    }
+
+    private synchronized void offer(long key, String label, long estimate) {
+        for (int slot = 0; slot < topOccupied; slot++) {
+            if (topKeys[slot] == key) {
+                return;
+            }
+        }
+
+        refreshTopCounts();
+        int slot;
+        if (topOccupied < topKeys.length) {
+            slot = topOccupied++;
+        } else {
+            slot = minimumSlot();
+            if (topCounts[slot] >= estimate) {
+                updateAdmissionThreshold();
+                return;
+            }
+        }
+
+        topKeys[slot] = key;
+        topLabels[slot] = label;
+        topCounts[slot] = estimate;
+        topKeySnapshot = Arrays.copyOf(topKeys, topOccupied);
+        updateAdmissionThreshold();
+    }
+
+    private boolean isTopKey(long key) {
+        for (long topKey : topKeySnapshot) {
+            if (topKey == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refreshTopCounts() {
+        for (int slot = 0; slot < topOccupied; slot++) {
+            topCounts[slot] = estimate(topKeys[slot]);
+        }
+    }
+
+    private long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            estimate = Math.min(estimate, sketch.get(sketchIndex(key, row)));
+        }
+        return estimate;
+    }
+
+    private int minimumSlot() {
+        int minimumSlot = 0;
+        for (int slot = 1; slot < topOccupied; slot++) {
+            if (topCounts[slot] < topCounts[minimumSlot]) {
+                minimumSlot = slot;
+            }
+        }
+        return minimumSlot;
+    }
+
+    private void updateAdmissionThreshold() {
+        admissionThreshold = topOccupied < topKeys.length ? 0 : topCounts[minimumSlot()];
+    }
+
+    private int sketchIndex(long key, int row) {
+        long hash = (key ^ ROW_SEEDS[row]) * 0x9E37_79B9_7F4A_7C15L;
+        hash ^= hash >>> 29;
+        return row * (widthMask + 1) + ((int) hash & widthMask);
+    }
+
+    public record HeavyHitter(String label, long estimatedCount) {
+    }
+
+}
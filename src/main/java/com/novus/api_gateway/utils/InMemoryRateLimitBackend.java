@@ -0,0 +1,30 @@
+package com.novus.api_gateway.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private final Map<Long, Map<Long, AtomicLong>> countersByWindow = new ConcurrentHashMap<>();
+
+    @Override
+    public long[] addAndGet(long[] keys, long[] windows, long[] deltas, int count, long windowDuration) {
+        long[] totals = new long[count];
+        long latestWindow = Long.MIN_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            totals[i] = countersByWindow
+                    .computeIfAbsent(windows[i], window -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(keys[i], key -> new AtomicLong())
+                    .addAndGet(deltas[i]);
+            latestWindow = Math.max(latestWindow, windows[i]);
+        }
+
+        long oldestLiveWindow = latestWindow - 1;
+        countersByWindow.keySet().removeIf(window -> window < oldestLiveWindow);
+
+        return totals;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.novus.api_gateway.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryTokenRevocationBackend implements TokenRevocationBackend {
+
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(String userId, long revokedBefore, long expiresAt) {
+        revocations.merge(userId, new Revocation(revokedBefore, expiresAt), (current, update) -> new Revocation(
+                Math.max(current.revokedBefore(), update.revokedBefore()), Math.max(current.expiresAt(), update.expiresAt())));
+    }
+
+    @Override
+    public Map<String, Long> revokedSince(long since) {
+        long now = System.currentTimeMillis();
+        revocations.values().removeIf(revocation -> revocation.expiresAt() < now);
+
+        Map<String, Long> revokedSince = new HashMap<>();
+        revocations.forEach((userId, revocation) -> {
+            if (revocation.revokedBefore() >= since) {
+                revokedSince.put(userId, revocation.revokedBefore());
+            }
+        });
+        return revokedSince;
+    }
+
+    private record Revocation(long revokedBefore, long expiresAt) {
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.novus.api_gateway.utils;
+
+import lombok.Getter;
+
+public final class IpAddressParser {
+
+    private static final ThreadLocal<IpAddressParser> PARSERS = ThreadLocal.withInitial(IpAddressParser::new);
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFF_0000_0000L;
+    private static final long IPV4_KEY_PREFIX = 0xFFFF_0000_0000_0000L;
+    private static final int IPV6_GROUPS = 8;
+
+    private final int[] groups = new int[IPV6_GROUPS];
+
+    @Getter private long high;
+    @Getter private long low;
+
+    private IpAddressParser() {
+    }
+
+    public static IpAddressParser forCurrentThread() {
+        return PARSERS.get();
+    }
+
+    public boolean parse(CharSequence value, int from, int to) {
+        while (from < to && value.charAt(from) == ' ') {
+            from++;
+        }
+        while (to > from && value.charAt(to - 1) == ' ') {
+            to--;
+        }
+        if (from >= to) {
+            return false;
+        }
+
+        if (value.charAt(from) == '[') {
+            int closingBracket = indexOf(value, ']', from, to);
+            if (closingBracket < 0) {
+                return false;
+            }
+            from++;
+            to = closingBracket;
+        }
+
+        int zoneSeparator = indexOf(value, '%', from, to);
+        if (zoneSeparator >= 0) {
+            to = zoneSeparator;
+        }
+
+        int firstColon = indexOf(value, ':', from, to);
+        if (firstColon < 0) {
+            return parseIpv4Address(value, from, to);
+        }
+
+        if (indexOf(value, ':', firstColon + 1, to) < 0 && indexOf(value, '.', from, firstColon) >= 0) {
+            return parseIpv4Address(value, from, firstColon);
+        }
+
+        return parseIpv6Address(value, from, to);
+    }
+
+    public boolean isIpv4() {
+        return high == 0 && (low >>> 32) == 0xFFFFL;
+    }
+
+    public long rateLimitKey() {
+        return isIpv4() ? IPV4_KEY_PREFIX | (low & 0xFFFF_FFFFL) : high;
+    }
+
+    private boolean parseIpv4Address(CharSequence value, int from, int to) {
+        long ipv4 = parseIpv4(value, from, to);
+        if (ipv4 < 0) {
+            return false;
+        }
+
+        high = 0;
+        low = IPV4_MAPPED_PREFIX | ipv4;
+        return true;
+    }
+
+    private boolean parseIpv6Address(CharSequence value, int from, int to) {
+        int groupCount = 0;
+        int compressionIndex = -1;
+        int index = from;
+
+        if (startsWithDoubleColon(value, index, to)) {
+            compressionIndex = 0;
+            index += 2;
+        } else if (value.charAt(index) == ':') {
+            return false;
+        }
+
+        while (index < to) {
+            int end = indexOf(value, ':', index, to);
+            if (end < 0) {
+                end = to;
+            }
+            if (end == index) {
+                return false;
+            }
+
+            if (end == to && indexOf(value, '.', index, to) >= 0) {
+                long ipv4 = parseIpv4(value, index, to);
+                if (ipv4 < 0 || groupCount > IPV6_GROUPS - 2) {
+                    return false;
+                }
+                groups[groupCount++] = (int) (ipv4 >>> 16);
+                groups[groupCount++] = (int) (ipv4 & 0xFFFF);
+            } else {
+                int group = parseHexGroup(value, index, end);
+                if (group < 0 || groupCount == IPV6_GROUPS) {
+                    return false;
+                }
+                groups[groupCount++] = group;
+            }
+
+            index = end;
+            if (index < to) {
+                index++;
+                if (index == to) {
+                    return false;
+                }
+                if (value.charAt(index) == ':') {
+                    if (compressionIndex >= 0) {
+                        return false;
+                    }
+                    compressionIndex = groupCount;
+                    index++;
+                }
+            }
+        }
+
+        if (compressionIndex < 0 ? groupCount != IPV6_GROUPS : groupCount == IPV6_GROUPS) {
+            return false;
+        }
+
+        if (compressionIndex >= 0) {
+            int missingGroups = IPV6_GROUPS - groupCount;
+            for (int i = groupCount - 1; i >= compressionIndex; i--) {
+                groups[i + missingGroups] = groups[i];
+            }
+            for (int i = compressionIndex; i < compressionIndex + missingGroups; i++) {
+                groups[i] = 0;
+            }
+        }
+
+        high = ((long) groups[0] << 48) | ((long) groups[1] << 32) | ((long) groups[2] << 16) | groups[3];
+        low = ((long) groups[4] << 48) | ((long) groups[5] << 32) | ((long) groups[6] << 16) | groups[7];
+        return true;
+    }
+
+    private static long parseIpv4(CharSequence value, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int index = from;
+
+        while (index < to) {
+            int octet = 0;
+            int digits = 0;
+            while (index < to && value.charAt(index) != '.') {
+                char c = value.charAt(index++);
+                if (c < '0' || c > '9' || ++digits > 3) {
+                    return -1;
+                }
+                octet = octet * 10 + (c - '0');
+            }
+
+            if (digits == 0 || octet > 255 || ++octets > 4) {
+                return -1;
+            }
+            address = (address << 8) | octet;
+
+            if (index < to && ++index == to) {
+                return -1;
+            }
+        }
+
+        return octets == 4 ? address : -1;
+    }
+
+    private static int parseHexGroup(CharSequence value, int from, int to) {
+        if (to - from > 4) {
+            return -1;
+        }
+
+        int group = 0;
+        for (int index = from; index < to; index++) {
+            int digit = Character.digit(value.charAt(index), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            group = (group << 4) | digit;
+        }
+        return group;
+    }
+
+    private static boolean startsWithDoubleColon(CharSequence value, int from, int to) {
+        return to - from >= 2 && value.charAt(from) == ':' && value.charAt(from + 1) == ':';
+    }
+
+    private static int indexOf(CharSequence value, char c, int from, int to) {
+        for (int index = from; index < to; index++) {
+            if (value.charAt(index) == c) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+}
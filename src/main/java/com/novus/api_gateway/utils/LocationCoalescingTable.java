@@ -0,0 +1,218 @@
+package com.novus.api_gateway.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class LocationCoalescingTable<T> {
+
+    private static final long EMPTY_KEY = 0L;
+    private static final long SUBSTITUTE_KEY = 1L;
+    private static final int MAX_PROBES = 16;
+    private static final int MAX_WRITE_ATTEMPTS = 4;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray versions;
+    private final AtomicLongArray owners;
+    private final AtomicLongArray latitudes;
+    private final AtomicLongArray longitudes;
+    private final AtomicLongArray updatedAt;
+    private final AtomicReferenceArray<T> attachments;
+    private final AtomicInteger occupiedSlots = new AtomicInteger();
+
+    private final long[] publishedKeys;
+    private final long[] publishedVersions;
+    private final long[] publishedAt;
+    private final double[] publishedLatitudes;
+    private final double[] publishedLongitudes;
+
+    public LocationCoalescingTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBES) - 1) << 1;
+        this.mask = size - 1;
+        this.keys = new AtomicLongArray(size);
+        this.versions = new AtomicLongArray(size);
+        this.owners = new AtomicLongArray(size);
+        this.latitudes = new AtomicLongArray(size);
+        this.longitudes = new AtomicLongArray(size);
+        this.updatedAt = new AtomicLongArray(size);
+        this.attachments = new AtomicReferenceArray<>(size);
+        this.publishedKeys = new long[size];
+        this.publishedVersions = new long[size];
+        this.publishedAt = new long[size];
+        this.publishedLatitudes = new double[size];
+        this.publishedLongitudes = new double[size];
+    }
+
+    public boolean update(long key, double latitude, double longitude, long timestamp, T attachment) {
+        key = normalize(key);
+
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            int slot = findOrClaimSlot(key);
+            if (slot < 0) {
+                return false;
+            }
+
+            long version = versions.get(slot);
+            if ((version & 1) != 0 || !versions.compareAndSet(slot, version, version + 1)) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            if (keys.get(slot) != key) {
+                versions.set(slot, version + 2);
+                continue;
+            }
+
+            owners.set(slot, key);
+            latitudes.set(slot, Double.doubleToRawLongBits(latitude));
+            longitudes.set(slot, Double.doubleToRawLongBits(longitude));
+            updatedAt.set(slot, timestamp);
+            attachments.set(slot, attachment);
+            versions.set(slot, version + 2);
+            return true;
+        }
+
+        return false;
+    }
+
+    public T attachment(long key) {
+        key = normalize(key);
+
+        int start = spread(key) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            if (keys.get(slot) == key) {
+                return attachments.get(slot);
+            }
+        }
+        return null;
+    }
+
+    public int flush(long now, double minDistanceMeters, long idleMillis, long maxIntervalMillis, long evictAfterMillis,
+                     boolean force, FlushHandler<T> handler) {
+        int published = 0;
+
+        for (int slot = 0; slot <= mask; slot++) {
+            long key = keys.get(slot);
+            if (key == EMPTY_KEY) {
+                continue;
+            }
+
+            long version = versions.get(slot);
+            while (force && (version & 1) != 0) {
+                Thread.onSpinWait();
+                version = versions.get(slot);
+            }
+            if ((version & 1) != 0) {
+                continue;
+            }
+
+            if (publishedKeys[slot] == key && publishedVersions[slot] == version) {
+                evictIfIdle(slot, key, version, now, evictAfterMillis);
+                continue;
+            }
+
+            long owner = owners.get(slot);
+            double latitude = Double.longBitsToDouble(latitudes.get(slot));
+            double longitude = Double.longBitsToDouble(longitudes.get(slot));
+            long timestamp = updatedAt.get(slot);
+            T attachment = attachments.get(slot);
+            if (versions.get(slot) != version || owner != key) {
+                continue;
+            }
+
+            boolean firstPosition = publishedKeys[slot] != key;
+            if (!force && !firstPosition
+                    && now - timestamp < idleMillis
+                    && now - publishedAt[slot] < maxIntervalMillis
+                    && distanceMeters(publishedLatitudes[slot], publishedLongitudes[slot], latitude, longitude) < minDistanceMeters) {
+                continue;
+            }
+
+            if (!handler.publish(attachment, latitude, longitude, timestamp)) {
+                continue;
+            }
+
+            publishedKeys[slot] = key;
+            publishedVersions[slot] = version;
+            publishedAt[slot] = now;
+            publishedLatitudes[slot] = latitude;
+            publishedLongitudes[slot] = longitude;
+            published++;
+        }
+
+        return published;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int occupiedSlots() {
+        return occupiedSlots.get();
+    }
+
+    private void evictIfIdle(int slot, long key, long version, long now, long evictAfterMillis) {
+        if (now - updatedAt.get(slot) < evictAfterMillis || !versions.compareAndSet(slot, version, version + 1)) {
+            return;
+        }
+
+        if (keys.compareAndSet(slot, key, EMPTY_KEY)) {
+            attachments.set(slot, null);
+            owners.set(slot, EMPTY_KEY);
+            occupiedSlots.decrementAndGet();
+        }
+        versions.set(slot, version + 2);
+    }
+
+    private int findOrClaimSlot(long key) {
+        int start = spread(key) & mask;
+        int firstEmpty = -1;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            long current = keys.get(slot);
+            if (current == key) {
+                return slot;
+            }
+            if (current == EMPTY_KEY && firstEmpty < 0) {
+                firstEmpty = slot;
+            }
+        }
+
+        if (firstEmpty < 0) {
+            return -1;
+        }
+
+        if (keys.compareAndSet(firstEmpty, EMPTY_KEY, key)) {
+            occupiedSlots.incrementAndGet();
+            return firstEmpty;
+        }
+        return keys.get(firstEmpty) == key ? firstEmpty : -1;
+    }
+
+    private static double distanceMeters(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double meanLatitude = Math.toRadians((fromLatitude + toLatitude) / 2);
+        double x = Math.toRadians(toLongitude - fromLongitude) * Math.cos(meanLatitude);
+        double y = Math.toRadians(toLatitude - fromLatitude);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+
+    private static long normalize(long key) {
+        return key == EMPTY_KEY ? SUBSTITUTE_KEY : key;
+    }
+
+    private static int spread(long key) {
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+    @FunctionalInterface
+    public interface FlushHandler<T> {
+        boolean publish(T attachment, double latitude, double longitude, long timestamp);
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.novus.api_gateway.utils;
+
+public enum OverflowPolicy {
+    FAIL_FAST,
+    DROP,
+    SPILL
+}
@@ -0,0 +1,7 @@
+package com.novus.api_gateway.utils;
+
+public interface RateLimitBackend {
+
+    long[] addAndGet(long[] keys, long[] windows, long[] deltas, int count, long windowDuration);
+
+}
@@ -0,0 +1,185 @@
+package com.novus.api_gateway.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class RateLimitTable {
+
+    private static final long EMPTY_KEY = 0L;
+    private static final long SUBSTITUTE_KEY = 1L;
+    private static final int MAX_PROBES = 16;
+
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray theoreticalArrivalTimes;
+    private final AtomicLongArray blockedUntil;
+    private final AtomicIntegerArray referenced;
+    private final AtomicInteger occupiedSlots = new AtomicInteger();
+    private final AtomicLong evictions = new AtomicLong();
+    private int sweepCursor;
+
+    public RateLimitTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBES) - 1) << 1;
+        this.mask = size - 1;
+        this.keys = new AtomicLongArray(size);
+        this.theoreticalArrivalTimes = new AtomicLongArray(size);
+        this.blockedUntil = new AtomicLongArray(size);
+        this.referenced = new AtomicIntegerArray(size);
+    }
+
+    public boolean tryAcquire(long key, long now, long emissionInterval, long burstDuration, long blockDuration) {
+        int slot = findOrClaimSlot(normalize(key), now);
+        if (slot < 0) {
+            return true;
+        }
+
+        if (blockedUntil.get(slot) > now) {
+            return false;
+        }
+
+        while (true) {
+            long current = theoreticalArrivalTimes.get(slot);
+            long next = Math.max(current, now) + emissionInterval;
+            if (next - now > burstDuration) {
+                blockedUntil.set(slot, now + blockDuration);
+                return false;
+            }
+
+            if (theoreticalArrivalTimes.compareAndSet(slot, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    public void block(long key, long now, long blockDuration) {
+        int slot = findOrClaimSlot(normalize(key), now);
+        if (slot >= 0) {
+            blockedUntil.set(slot, now + blockDuration);
+        }
+    }
+
+    public int sweepExpired(long now, int maxSlots) {
+        int cleared = 0;
+        for (int scanned = 0; scanned < maxSlots && scanned <= mask; scanned++) {
+            int slot = sweepCursor;
+            sweepCursor = (sweepCursor + 1) & mask;
+
+            long key = keys.get(slot);
+            if (key != EMPTY_KEY && isExpired(slot, now) && keys.compareAndSet(slot, key, EMPTY_KEY)) {
+                occupiedSlots.decrementAndGet();
+                cleared++;
+            }
+        }
+        return cleared;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int occupiedSlots() {
+        return occupiedSlots.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    private int findOrClaimSlot(long key, long now) {
+        int start = spread(key) & mask;
+        int firstEmpty = -1;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            long current = keys.get(slot);
+            if (current == key) {
+                referenced.lazySet(slot, 1);
+                return slot;
+            }
+            if (current == EMPTY_KEY && firstEmpty < 0) {
+                firstEmpty = slot;
+            }
+        }
+
+        if (firstEmpty >= 0) {
+            if (keys.compareAndSet(firstEmpty, EMPTY_KEY, key)) {
+                occupiedSlots.incrementAndGet();
+                resetSlot(firstEmpty);
+                return firstEmpty;
+            }
+            return keys.get(firstEmpty) == key ? firstEmpty : -1;
+        }
+
+        return replaceVictim(start, key, now);
+    }
+
+    private int replaceVictim(int start, long key, long now) {
+        int victim = -1;
+        boolean victimExpired = false;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            if (isExpired(slot, now)) {
+                victim = slot;
+                victimExpired = true;
+                break;
+            }
+
+            if (victim < 0 && blockedUntil.get(slot) <= now) {
+                if (referenced.get(slot) == 0) {
+                    victim = slot;
+                } else {
+                    referenced.lazySet(slot, 0);
+                }
+            }
+        }
+
+        if (victim < 0) {
+            victim = firstUnblockedSlot(start, now);
+        }
+
+        long current = keys.get(victim);
+        if (current == EMPTY_KEY || !keys.compareAndSet(victim, current, key)) {
+            return -1;
+        }
+
+        resetSlot(victim);
+        if (!victimExpired) {
+            evictions.incrementAndGet();
+        }
+        return victim;
+    }
+
+    private int firstUnblockedSlot(int start, long now) {
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            if (blockedUntil.get(slot) <= now) {
+                return slot;
+            }
+        }
+        return start;
+    }
+
+    private void resetSlot(int slot) {
+        theoreticalArrivalTimes.set(slot, 0);
+        blockedUntil.set(slot, 0);
+        referenced.lazySet(slot, 0);
+    }
+
+    private boolean isExpired(int slot, long now) {
+        return theoreticalArrivalTimes.get(slot) <= now && blockedUntil.get(slot) <= now;
+    }
+
+    private static long normalize(long key) {
+        return key == EMPTY_KEY ? SUBSTITUTE_KEY : key;
+    }
+
+    private static int spread(long key) {
+        long hash = key * 0x9E37_79B9_7F4A_7C15L;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+}
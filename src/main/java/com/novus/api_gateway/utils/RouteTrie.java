@@ -0,0 +1,120 @@
+package com.novus.api_gateway.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+public final class RouteTrie {
+
+    public static final String ANY_METHOD = "*";
+
+    private final Node root = new Node();
+    private final List<Route> routes = new ArrayList<>();
+
+    public Route add(String method, String template, String service) {
+        Node node = root;
+        for (String segment : splitTemplate(template)) {
+            if (segment.startsWith("{*") || segment.equals("**")) {
+                node = isNull(node.catchAll) ? (node.catchAll = new Node()) : node.catchAll;
+                break;
+            }
+            if (isVariable(segment)) {
+                node = isNull(node.variable) ? (node.variable = new Node()) : node.variable;
+            } else {
+                node = node.literals.computeIfAbsent(segment, ignored -> new Node());
+            }
+        }
+
+        String routeMethod = isNull(method) ? ANY_METHOD : method;
+        Route existing = node.routesByMethod.get(routeMethod);
+        if (!isNull(existing)) {
+            return existing;
+        }
+
+        Route route = new Route(routes.size(), routeMethod, template, service, routeMethod + " " + template);
+        node.routesByMethod.put(routeMethod, route);
+        routes.add(route);
+        return route;
+    }
+
+    public Route resolve(String method, String path) {
+        if (isNull(path) || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+
+        return find(root, method, path, 1);
+    }
+
+    public List<Route> routes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    private Route find(Node node, String method, String path, int from) {
+        if (from > path.length()) {
+            Route route = node.routeFor(method);
+            return isNull(route) && !isNull(node.catchAll) ? node.catchAll.routeFor(method) : route;
+        }
+
+        int end = path.indexOf('/', from);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        Node literal = node.literals.get(path.substring(from, end));
+        if (!isNull(literal)) {
+            Route match = find(literal, method, path, end + 1);
+            if (!isNull(match)) {
+                return match;
+            }
+        }
+
+        if (!isNull(node.variable) && end > from) {
+            Route match = find(node.variable, method, path, end + 1);
+            if (!isNull(match)) {
+                return match;
+            }
+        }
+
+        return isNull(node.catchAll) ? null : node.catchAll.routeFor(method);
+    }
+
+    private static List<String> splitTemplate(String template) {
+        List<String> segments = new ArrayList<>();
+        int from = template.startsWith("/") ? 1 : 0;
+        while (from <= template.length()) {
+            int end = template.indexOf('/', from);
+            if (end < 0) {
+                end = template.length();
+            }
+            segments.add(template.substring(from, end));
+            from = end + 1;
+        }
+        return segments;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"));
+    }
+
+    public record Route(int id, String method, String template, String service, String key) {
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+        private final Map<String, Route> routesByMethod = new HashMap<>();
+        private Node variable;
+        private Node catchAll;
+
+        private Route routeFor(String method) {
+            Route route = routesByMethod.get(method);
+            return isNull(route) ? routesByMethod.get(ANY_METHOD) : route;
+        }
+
+    }
+
+}
@@ -0,0 +1,493 @@
+package com.novus.api_gateway.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+@Slf4j
+public final class SegmentedSpool implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CHECKPOINT_FILE = "replay.checkpoint";
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int CRC_OFFSET = Integer.BYTES;
+    private static final int TIMESTAMP_OFFSET = Integer.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSizeBytes;
+    private final boolean evictOldestWhenFull;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+
+    private long nextSegmentId;
+    private int writePosition;
+    private int readPosition;
+    private long pendingRecords;
+    private long pendingBytes;
+    private long evictedRecords;
+    private boolean closed;
+
+    public SegmentedSpool(Path directory, int segmentSize, long maxSizeBytes, boolean evictOldestWhenFull) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSizeBytes = Math.max(maxSizeBytes, segmentSize);
+        this.evictOldestWhenFull = evictOldestWhenFull;
+
+        try {
+            Files.createDirectories(directory);
+            openExistingSegments();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Could not open spool in " + directory, exception);
+        }
+    }
+
+    public synchronized boolean append(byte[] payload, long timestamp) {
+        if (closed) {
+            return false;
+        }
+
+        int recordSize = RECORD_HEADER_BYTES + payload.length;
+        if (recordSize > segmentSize) {
+            return false;
+        }
+
+        if (writePosition + recordSize > segments.peekLast().buffer().capacity() && !rollOver()) {
+            return false;
+        }
+
+        MappedByteBuffer buffer = segments.peekLast().buffer();
+        buffer.putLong(writePosition + TIMESTAMP_OFFSET, timestamp);
+        buffer.put(writePosition + RECORD_HEADER_BYTES, payload);
+        buffer.putInt(writePosition + CRC_OFFSET, checksum(timestamp, payload));
+        buffer.putInt(writePosition, payload.length);
+
+        writePosition += recordSize;
+        pendingRecords++;
+        pendingBytes += recordSize;
+        return true;
+    }
+
+    public int replay(int maxRecords, RecordHandler handler) {
+        int replayed = 0;
+
+        while (replayed < maxRecords) {
+            PendingRecord pendingRecord = peek();
+            if (pendingRecord == null) {
+                break;
+            }
+
+            boolean handled;
+            try {
+                handled = handler.handle(pendingRecord.payload(), pendingRecord.timestamp());
+            } catch (RuntimeException exception) {
+                log.warn("🔄 Spool replay handler failed: {}", exception.getMessage());
+                handled = false;
+            }
+
+            if (!handled) {
+                break;
+            }
+
+            commit(pendingRecord);
+            replayed++;
+        }
+
+        if (replayed > 0) {
+            writeCheckpoint();
+        }
+        return replayed;
+    }
+
+    public int replayBatch(int maxRecords, BatchHandler handler) {
+        List<PendingRecord> batch = peekBatch(maxRecords);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<byte[]> payloads = new ArrayList<>(batch.size());
+        for (PendingRecord pendingRecord : batch) {
+            payloads.add(pendingRecord.payload());
+        }
+
+        int acknowledged;
+        try {
+            acknowledged = Math.min(handler.handle(payloads), batch.size());
+        } catch (RuntimeException exception) {
+            log.warn("🔄 Spool batch replay handler failed: {}", exception.getMessage());
+            acknowledged = 0;
+        }
+
+        int committed = commitPrefix(batch, acknowledged);
+        if (committed > 0) {
+            writeCheckpoint();
+        }
+        return committed;
+    }
+
+    public synchronized boolean hasPending() {
+        return pendingRecords > 0;
+    }
+
+    public synchronized long pendingRecords() {
+        return pendingRecords;
+    }
+
+    public synchronized long pendingBytes() {
+        return pendingBytes;
+    }
+
+    public synchronized long evictedRecords() {
+        return evictedRecords;
+    }
+
+    public synchronized long oldestPendingTimestamp() {
+        PendingRecord pendingRecord = peekHeader();
+        return pendingRecord == null ? -1 : pendingRecord.timestamp();
+    }
+
+    public synchronized void force() {
+        if (closed) {
+            return;
+        }
+        segments.peekLast().buffer().force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        force();
+        writeCheckpoint();
+        for (Segment segment : segments) {
+            closeQuietly(segment);
+        }
+        segments.clear();
+        closed = true;
+    }
+
+    private synchronized PendingRecord peek() {
+        PendingRecord header = peekHeader();
+        if (header == null) {
+            return null;
+        }
+
+        byte[] payload = new byte[header.size() - RECORD_HEADER_BYTES];
+        segments.peekFirst().buffer().get(readPosition + RECORD_HEADER_BYTES, payload);
+        return new PendingRecord(header.segmentId(), header.position(), header.size(), header.timestamp(), payload);
+    }
+
+    private synchronized List<PendingRecord> peekBatch(int maxRecords) {
+        List<PendingRecord> batch = new ArrayList<>();
+        if (peekHeader() == null) {
+            return batch;
+        }
+
+        Iterator<Segment> iterator = segments.iterator();
+        Segment segment = iterator.next();
+        int position = readPosition;
+
+        while (batch.size() < maxRecords) {
+            boolean isWriteSegment = segment == segments.peekLast();
+            int limit = isWriteSegment ? writePosition : segment.buffer().capacity();
+
+            int length = position + RECORD_HEADER_BYTES <= limit ? segment.buffer().getInt(position) : 0;
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > limit) {
+                if (isWriteSegment) {
+                    break;
+                }
+                segment = iterator.next();
+                position = 0;
+                continue;
+            }
+
+            if (segment.buffer().getInt(position + CRC_OFFSET) != checksum(segment.buffer(), position, length)) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            segment.buffer().get(position + RECORD_HEADER_BYTES, payload);
+            batch.add(new PendingRecord(segment.id(), position, RECORD_HEADER_BYTES + length,
+                    segment.buffer().getLong(position + TIMESTAMP_OFFSET), payload));
+            position += RECORD_HEADER_BYTES + length;
+        }
+        return batch;
+    }
+
+    private synchronized int commitPrefix(List<PendingRecord> batch, int count) {
+        int committed = 0;
+        while (committed < count) {
+            PendingRecord expected = batch.get(committed);
+            PendingRecord head = peekHeader();
+            if (head == null || head.segmentId() != expected.segmentId() || head.position() != expected.position()) {
+                break;
+            }
+
+            commit(head);
+            committed++;
+        }
+        return committed;
+    }
+
+    private PendingRecord peekHeader() {
+        if (closed) {
+            return null;
+        }
+
+        while (true) {
+            Segment head = segments.peekFirst();
+            boolean isWriteSegment = head == segments.peekLast();
+            int limit = isWriteSegment ? writePosition : head.buffer().capacity();
+
+            int length = readPosition + RECORD_HEADER_BYTES <= limit ? head.buffer().getInt(readPosition) : 0;
+            if (length <= 0 || readPosition + RECORD_HEADER_BYTES + length > limit) {
+                if (isWriteSegment) {
+                    return null;
+                }
+                dropHead();
+                continue;
+            }
+
+            long timestamp = head.buffer().getLong(readPosition + TIMESTAMP_OFFSET);
+            if (head.buffer().getInt(readPosition + CRC_OFFSET) != checksum(head.buffer(), readPosition, length)) {
+                log.warn("🔄 Spool segment {} is corrupted at offset {}, skipping the rest of the segment", head.id(), readPosition);
+                skipRestOfHead(isWriteSegment);
+                continue;
+            }
+
+            return new PendingRecord(head.id(), readPosition, RECORD_HEADER_BYTES + length, timestamp, null);
+        }
+    }
+
+    private synchronized void commit(PendingRecord pendingRecord) {
+        if (closed || segments.peekFirst().id() != pendingRecord.segmentId() || readPosition != pendingRecord.position()) {
+            return;
+        }
+
+        readPosition += pendingRecord.size();
+        pendingRecords--;
+        pendingBytes -= pendingRecord.size();
+    }
+
+    private boolean rollOver() {
+        if ((long) (segments.size() + 1) * segmentSize > maxSizeBytes) {
+            if (!evictOldestWhenFull || segments.size() < 2) {
+                return false;
+            }
+            evictHead();
+        }
+
+        try {
+            segments.peekLast().buffer().force();
+            segments.addLast(createSegment(nextSegmentId++));
+            writePosition = 0;
+            return true;
+        } catch (IOException exception) {
+            log.error("🔄 Could not create a new spool segment in {}: {}", directory, exception.getMessage());
+            return false;
+        }
+    }
+
+    private void evictHead() {
+        Segment head = segments.peekFirst();
+        RecordCount remaining = countRecords(head.buffer(), readPosition, head.buffer().capacity());
+        pendingRecords -= remaining.records();
+        pendingBytes -= remaining.bytes();
+        evictedRecords += remaining.records();
+
+        log.warn("🔄 Spool is full, evicting segment {} with {} unreplayed record(s)", head.id(), remaining.records());
+        dropHead();
+    }
+
+    private void skipRestOfHead(boolean isWriteSegment) {
+        if (isWriteSegment) {
+            readPosition = writePosition;
+        } else {
+            dropHead();
+        }
+        recountPending();
+    }
+
+    private void recountPending() {
+        pendingRecords = 0;
+        pendingBytes = 0;
+        for (Segment segment : segments) {
+            int start = segment == segments.peekFirst() ? readPosition : 0;
+            int limit = segment == segments.peekLast() ? writePosition : segment.buffer().capacity();
+            RecordCount recordCount = countRecords(segment.buffer(), start, limit);
+            pendingRecords += recordCount.records();
+            pendingBytes += recordCount.bytes();
+        }
+    }
+
+    private void dropHead() {
+        Segment head = segments.pollFirst();
+        closeQuietly(head);
+        try {
+            Files.deleteIfExists(head.path());
+        } catch (IOException exception) {
+            log.warn("🔄 Could not delete spool segment {}: {}", head.path(), exception.getMessage());
+        }
+        readPosition = 0;
+    }
+
+    private void openExistingSegments() throws IOException {
+        List<Path> segmentPaths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .forEach(segmentPaths::add);
+        }
+
+        long[] checkpoint = readCheckpoint();
+        for (Path segmentPath : segmentPaths) {
+            long segmentId = parseSegmentId(segmentPath);
+            if (segmentId < checkpoint[0]) {
+                Files.deleteIfExists(segmentPath);
+                continue;
+            }
+            segments.addLast(mapSegment(segmentId, segmentPath));
+            nextSegmentId = segmentId + 1;
+        }
+
+        if (segments.isEmpty()) {
+            nextSegmentId = Math.max(nextSegmentId, checkpoint[0]);
+            segments.addLast(createSegment(nextSegmentId++));
+            return;
+        }
+
+        readPosition = segments.peekFirst().id() == checkpoint[0] ? (int) checkpoint[1] : 0;
+        for (Segment segment : segments) {
+            int start = segment == segments.peekFirst() ? readPosition : 0;
+            RecordCount recordCount = countRecords(segment.buffer(), start, segment.buffer().capacity());
+            pendingRecords += recordCount.records();
+            pendingBytes += recordCount.bytes();
+            if (segment == segments.peekLast()) {
+                writePosition = start + (int) recordCount.bytes();
+            }
+        }
+
+        if (pendingRecords > 0) {
+            log.info("🔄 Spool reopened in {} with {} record(s) waiting for replay", directory, pendingRecords);
+        }
+    }
+
+    private RecordCount countRecords(MappedByteBuffer buffer, int from, int limit) {
+        long records = 0;
+        int position = from;
+
+        while (position + RECORD_HEADER_BYTES <= limit) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > limit
+                    || buffer.getInt(position + CRC_OFFSET) != checksum(buffer, position, length)) {
+                break;
+            }
+            records++;
+            position += RECORD_HEADER_BYTES + length;
+        }
+        return new RecordCount(records, position - from);
+    }
+
+    private Segment createSegment(long segmentId) throws IOException {
+        return mapSegment(segmentId, directory.resolve(String.format("%020d%s", segmentId, SEGMENT_SUFFIX)));
+    }
+
+    private Segment mapSegment(long segmentId, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), segmentSize);
+        return new Segment(segmentId, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    private long[] readCheckpoint() {
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        try {
+            if (Files.exists(checkpointPath)) {
+                String[] parts = Files.readString(checkpointPath, StandardCharsets.UTF_8).trim().split(" ");
+                return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+            }
+        } catch (IOException | RuntimeException exception) {
+            log.warn("🔄 Ignoring unreadable spool checkpoint {}: {}", checkpointPath, exception.getMessage());
+        }
+        return new long[]{0, 0};
+    }
+
+    private synchronized void writeCheckpoint() {
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        Path temporaryPath = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.writeString(temporaryPath, segments.peekFirst().id() + " " + readPosition, StandardCharsets.UTF_8);
+            Files.move(temporaryPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            log.warn("🔄 Could not write spool checkpoint {}: {}", checkpointPath, exception.getMessage());
+        }
+    }
+
+    private int checksum(long timestamp, byte[] payload) {
+        crc.reset();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (timestamp >>> shift));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private int checksum(MappedByteBuffer buffer, int position, int length) {
+        crc.reset();
+        crc.update(buffer.slice(position + TIMESTAMP_OFFSET, Long.BYTES + length));
+        return (int) crc.getValue();
+    }
+
+    private static long parseSegmentId(Path segmentPath) {
+        String fileName = segmentPath.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel().close();
+        } catch (IOException exception) {
+            log.warn("🔄 Could not close spool segment {}: {}", segment.path(), exception.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        boolean handle(byte[] payload, long timestamp);
+    }
+
+    @FunctionalInterface
+    public interface BatchHandler {
+        int handle(List<byte[]> payloads);
+    }
+
+    private record Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private record PendingRecord(long segmentId, int position, int size, long timestamp, byte[] payload) {
+    }
+
+    private record RecordCount(long records, long bytes) {
+    }
+
+}
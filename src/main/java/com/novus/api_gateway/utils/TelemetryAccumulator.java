@@ -0,0 +1,98 @@
+package com.novus.api_gateway.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class TelemetryAccumulator {
+
+    public static final String OVERFLOW_DIMENSION = "other";
+
+    private final int maxDimensionsPerOperation;
+    private final Map<OperationKey, OperationCounters> counters = new ConcurrentHashMap<>();
+
+    public TelemetryAccumulator(int maxDimensionsPerOperation) {
+        this.maxDimensionsPerOperation = maxDimensionsPerOperation;
+    }
+
+    public void record(String topic, String operation, String dimension) {
+        OperationCounters operationCounters = counters.computeIfAbsent(new OperationKey(topic, operation), ignored -> new OperationCounters());
+
+        Window window = operationCounters.enter();
+        try {
+            window.total.increment();
+
+            LongAdder dimensionCounter = window.byDimension.get(dimension);
+            if (dimensionCounter == null) {
+                String trackedDimension = window.byDimension.size() < maxDimensionsPerOperation ? dimension : OVERFLOW_DIMENSION;
+                dimensionCounter = window.byDimension.computeIfAbsent(trackedDimension, ignored -> new LongAdder());
+            }
+            dimensionCounter.increment();
+        } finally {
+            window.writers.decrement();
+        }
+    }
+
+    public List<Summary> drain() {
+        List<Summary> summaries = new ArrayList<>();
+
+        for (Map.Entry<OperationKey, OperationCounters> entry : counters.entrySet()) {
+            Window window = entry.getValue().swap();
+            long eventCount = window.total.sum();
+            if (eventCount == 0) {
+                continue;
+            }
+
+            Map<String, Long> countsByDimension = new HashMap<>();
+            window.byDimension.forEach((dimension, count) -> countsByDimension.put(dimension, count.sum()));
+
+            summaries.add(new Summary(entry.getKey().topic(), entry.getKey().operation(), eventCount, countsByDimension));
+        }
+
+        return summaries;
+    }
+
+    public record Summary(String topic, String operation, long eventCount, Map<String, Long> countsByDimension) {
+    }
+
+    private record OperationKey(String topic, String operation) {
+    }
+
+    private static final class OperationCounters {
+
+        private volatile Window current = new Window();
+
+        private Window enter() {
+            while (true) {
+                Window window = current;
+                window.writers.increment();
+                if (window == current) {
+                    return window;
+                }
+                window.writers.decrement();
+            }
+        }
+
+        private Window swap() {
+            Window drained = current;
+            current = new Window();
+            while (drained.writers.sum() != 0) {
+                Thread.onSpinWait();
+            }
+            return drained;
+        }
+
+    }
+
+    private static final class Window {
+
+        private final LongAdder writers = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> byDimension = new ConcurrentHashMap<>();
+
+    }
+
+}
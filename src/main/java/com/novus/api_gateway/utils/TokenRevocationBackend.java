@@ -0,0 +1,11 @@
+package com.novus.api_gateway.utils;
+
+import java.util.Map;
+
+public interface TokenRevocationBackend {
+
+    void revoke(String userId, long revokedBefore, long expiresAt);
+
+    Map<String, Long> revokedSince(long since);
+
+}
@@ -0,0 +1,294 @@
+package com.novus.api_gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.configuration.JacksonConfig;
+import com.novus.api_gateway.prometheus.KafkaMetrics;
+import com.novus.api_gateway.prometheus.SpoolMetrics;
+import com.novus.api_gateway.service.ClientIpResolver;
+import com.novus.api_gateway.service.EventPrincipalProjector;
+import com.novus.api_gateway.service.KafkaEventSerializer;
+import com.novus.api_gateway.service.KafkaEventSpool;
+import com.novus.api_gateway.service.KafkaPartitionKeyResolver;
+import com.novus.api_gateway.service.PrincipalCache;
+import com.novus.api_gateway.service.TelemetryAggregator;
+import com.novus.api_gateway.service.TelemetryAggregator.SummaryEvent;
+import com.novus.api_gateway.service.TokenRevocationService;
+import com.novus.api_gateway.utils.EventHeaders;
+import com.novus.shared_models.common.Kafka.KafkaMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProducerSpoolTest {
+
+	private static final String TOPIC = "map-service";
+	private static final String OPERATION = "saveNewAlert";
+	private static final long AWAIT_TIMEOUT_MS = 5000;
+
+	@TempDir
+	Path spoolDirectory;
+
+	private final StandInBroker broker = new StandInBroker();
+	private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final TelemetryAggregator telemetryAggregator = mock(TelemetryAggregator.class);
+	private KafkaTemplate<String, byte[]> telemetryKafkaTemplate;
+	private KafkaEventSpool kafkaEventSpool;
+	private Producer producer;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		EnvConfiguration envConfiguration = envConfiguration(spoolDirectory);
+		KafkaMetrics kafkaMetrics = new KafkaMetrics(meterRegistry);
+
+		KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> broker.send(invocation.getArgument(0)));
+
+		telemetryKafkaTemplate = mock(KafkaTemplate.class);
+		when(telemetryKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+		kafkaEventSpool = new KafkaEventSpool(kafkaTemplate, envConfiguration, kafkaMetrics, new SpoolMetrics(meterRegistry));
+		producer = new Producer(
+				kafkaTemplate,
+				telemetryKafkaTemplate,
+				new KafkaEventSerializer(objectMapper, envConfiguration),
+				mock(PrincipalCache.class),
+				mock(TokenRevocationService.class),
+				mock(ClientIpResolver.class),
+				mock(KafkaPartitionKeyResolver.class),
+				kafkaMetrics,
+				envConfiguration,
+				new EventPrincipalProjector(envConfiguration),
+				kafkaEventSpool,
+				telemetryAggregator
+		);
+		producer.startDispatcher();
+	}
+
+	@AfterEach
+	void tearDown() {
+		producer.stopDispatcher();
+		kafkaEventSpool.close();
+	}
+
+	@Test
+	void spoolsEventsWhileTheBrokerIsDownAndReplaysThemInOrder() throws Exception {
+		for (int i = 0; i < 50; i++) {
+			producer.send(event(i), TOPIC, OPERATION);
+		}
+		awaitUntil(() -> pendingRecords() == 50);
+		assertTrue(broker.received().isEmpty());
+
+		broker.start();
+		kafkaEventSpool.replay();
+
+		assertFalse(kafkaEventSpool.hasPending());
+		assertEquals(indexes(0, 50), receivedIndexes());
+
+		producer.send(event(50), TOPIC, OPERATION);
+		awaitUntil(() -> broker.received().size() == 51);
+		assertEquals(indexes(0, 51), receivedIndexes());
+	}
+
+	@Test
+	void keepsOrderWhenNewEventsArriveWhileOlderOnesArePending() throws Exception {
+		producer.send(event(0), TOPIC, OPERATION);
+		awaitUntil(kafkaEventSpool::hasPending);
+
+		broker.start();
+		for (int i = 1; i < 20; i++) {
+			producer.send(event(i), TOPIC, OPERATION);
+		}
+		awaitUntil(() -> pendingRecords() + broker.received().size() == 20);
+		kafkaEventSpool.replay();
+
+		assertFalse(kafkaEventSpool.hasPending());
+		assertEquals(indexes(0, 20), receivedIndexes());
+	}
+
+	@Test
+	void keepsTheUnacknowledgedTailWhenTheBrokerStopsMidReplay() throws Exception {
+		for (int i = 0; i < 30; i++) {
+			producer.send(event(i), TOPIC, OPERATION);
+		}
+		awaitUntil(() -> pendingRecords() == 30);
+
+		broker.startFor(12);
+		kafkaEventSpool.replay();
+		assertEquals(indexes(0, 12), receivedIndexes());
+		assertEquals(18, pendingRecords());
+
+		broker.start();
+		kafkaEventSpool.replay();
+		assertEquals(indexes(0, 30), receivedIndexes());
+	}
+
+	@Test
+	void replaysRecordsExactlyAsTheyWereSpooled() {
+		RecordHeaders headers = new RecordHeaders();
+		headers.add(EventHeaders.OPERATION, OPERATION.getBytes(StandardCharsets.UTF_8));
+		headers.add(EventHeaders.IP_ADDRESS, new byte[]{(byte) 203, 0, 113, 9});
+		ProducerRecord<String, byte[]> keyed = new ProducerRecord<>(TOPIC, null, "alert-42", new byte[]{0, 1, 2, (byte) 0xFF}, headers);
+		ProducerRecord<String, byte[]> unkeyed = new ProducerRecord<>("user-service", null, null, new byte[0], new RecordHeaders());
+
+		assertTrue(kafkaEventSpool.spool(keyed));
+		assertTrue(kafkaEventSpool.spool(unkeyed));
+		broker.start();
+		kafkaEventSpool.replay();
+
+		List<ProducerRecord<String, byte[]>> received = broker.received();
+		assertEquals(2, received.size());
+		assertSameRecord(keyed, received.get(0));
+		assertSameRecord(unkeyed, received.get(1));
+		assertNull(received.get(1).key());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void publishesTelemetrySummariesOnTheTelemetryLane() {
+		when(telemetryAggregator.drain()).thenReturn(List.of(new SummaryEvent(event(0), TOPIC, "updateUserLocationSummary", 12)), List.of());
+
+		producer.publishTelemetrySummaries();
+
+		verify(telemetryKafkaTemplate, timeout(AWAIT_TIMEOUT_MS)).send(any(ProducerRecord.class));
+		assertTrue(broker.received().isEmpty());
+		assertFalse(kafkaEventSpool.hasPending());
+	}
+
+	private long pendingRecords() {
+		return (long) meterRegistry.get("spool.records").gauge().value();
+	}
+
+	private List<Integer> receivedIndexes() throws Exception {
+		List<Integer> indexes = new ArrayList<>();
+		for (ProducerRecord<String, byte[]> record : broker.received()) {
+			indexes.add(objectMapper.readTree(record.value()).get("request").get("index").asInt());
+		}
+		return indexes;
+	}
+
+	private static List<Integer> indexes(int from, int to) {
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			indexes.add(i);
+		}
+		return indexes;
+	}
+
+	private static void assertSameRecord(ProducerRecord<String, byte[]> expected, ProducerRecord<String, byte[]> actual) {
+		assertEquals(expected.topic(), actual.topic());
+		assertEquals(expected.key(), actual.key());
+		assertArrayEquals(expected.value(), actual.value());
+
+		Header[] expectedHeaders = expected.headers().toArray();
+		Header[] actualHeaders = actual.headers().toArray();
+		assertEquals(expectedHeaders.length, actualHeaders.length);
+		for (int i = 0; i < expectedHeaders.length; i++) {
+			assertEquals(expectedHeaders[i].key(), actualHeaders[i].key());
+			assertArrayEquals(expectedHeaders[i].value(), actualHeaders[i].value());
+		}
+	}
+
+	private static KafkaMessage event(int index) {
+		return KafkaMessage.builder()
+				.ipAddress("203.0.113.9")
+				.request(Map.of("index", String.valueOf(index)))
+				.timeStamp(String.valueOf(System.currentTimeMillis()))
+				.build();
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("Condition not met within " + AWAIT_TIMEOUT_MS + " ms");
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	private static EnvConfiguration envConfiguration(Path spoolDirectory) {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setKafkaEnvelopeCompatEnabled(false);
+		envConfiguration.setKafkaEventFormat("json");
+		envConfiguration.setKafkaDispatchQueueCapacity(1024);
+		envConfiguration.setKafkaDispatchSenderThreads(1);
+		envConfiguration.setKafkaDefaultOverflowPolicy("spill");
+		envConfiguration.setKafkaSpoolEnabled(true);
+		envConfiguration.setKafkaSpoolDirectory(spoolDirectory.toString());
+		envConfiguration.setKafkaSpoolSegmentSizeBytes(64 * 1024);
+		envConfiguration.setKafkaSpoolMaxSizeBytes(16 * 64 * 1024);
+		return envConfiguration;
+	}
+
+	private static final class StandInBroker {
+
+		private final List<ProducerRecord<String, byte[]>> received = new ArrayList<>();
+		private boolean running;
+		private int remainingAccepts = -1;
+
+		synchronized void start() {
+			running = true;
+			remainingAccepts = -1;
+		}
+
+		synchronized void startFor(int accepts) {
+			running = true;
+			remainingAccepts = accepts;
+		}
+
+		synchronized CompletableFuture<SendResult<String, byte[]>> send(ProducerRecord<String, byte[]> record) {
+			if (running && remainingAccepts == 0) {
+				running = false;
+			}
+			if (!running) {
+				return CompletableFuture.failedFuture(new TimeoutException("Stand-in broker is stopped"));
+			}
+
+			if (remainingAccepts > 0) {
+				remainingAccepts--;
+			}
+			received.add(record);
+			RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), received.size() - 1, 0,
+					System.currentTimeMillis(), -1, -1);
+			return CompletableFuture.completedFuture(new SendResult<>(record, metadata));
+		}
+
+		synchronized List<ProducerRecord<String, byte[]>> received() {
+			return new ArrayList<>(received);
+		}
+
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.novus.api_gateway.configuration;
+
+import com.novus.api_gateway.dao.UserDaoUtils;
+import com.novus.api_gateway.prometheus.SecurityMetrics;
+import com.novus.api_gateway.service.ClientIpResolver;
+import com.novus.api_gateway.service.JwtTokenService;
+import com.novus.api_gateway.service.LoggingService;
+import com.novus.api_gateway.service.PrincipalCache;
+import com.novus.api_gateway.service.RateLimitingService;
+import com.novus.api_gateway.service.RouteRegistry;
+import com.novus.api_gateway.service.TokenRevocationService;
+import com.novus.shared_models.common.User.User;
+import com.novus.shared_models.common.User.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.oauth2.client.CommonOAuth2Provider;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(SecurityConfigurationTest.TestConfiguration.class)
+class SecurityConfigurationTest {
+
+	private static final String HEAVY_HITTERS_PATH = "/actuator/heavyhitters";
+	private static final String ADMIN_ID = "6650b7e2c1a4f9a3d2e1b0c1";
+	private static final String USER_ID = "6650b7e2c1a4f9a3d2e1b0c2";
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private JwtTokenService jwtTokenService;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+				.addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+				.build();
+	}
+
+	@Test
+	void letsAdminsReadTheHeavyHitters() throws Exception {
+		mockMvc.perform(get(HEAVY_HITTERS_PATH).header(HttpHeaders.AUTHORIZATION, bearer(user(ADMIN_ID, UserRole.ADMIN))))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void forbidsUsersFromReadingTheHeavyHitters() throws Exception {
+		mockMvc.perform(get(HEAVY_HITTERS_PATH).header(HttpHeaders.AUTHORIZATION, bearer(user(USER_ID, UserRole.USER))))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void rejectsAnonymousCallersOfTheHeavyHitters() throws Exception {
+		mockMvc.perform(get(HEAVY_HITTERS_PATH))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private String bearer(User user) {
+		return "Bearer " + jwtTokenService.generateToken(user);
+	}
+
+	private static User user(String id, UserRole role) {
+		return User.builder().id(id).username("user-" + id).role(role).build();
+	}
+
+	@Configuration
+	@EnableWebMvc
+	@Import(SecurityConfiguration.class)
+	static class TestConfiguration {
+
+		@Bean
+		EnvConfiguration envConfiguration() {
+			EnvConfiguration envConfiguration = new EnvConfiguration();
+			envConfiguration.setJwtSecret("security-test-secret-security-test-secret-security-test-secret-0123");
+			envConfiguration.setAllowedOrigins("http://localhost:3000");
+			return envConfiguration;
+		}
+
+		@Bean
+		SecurityMetrics securityMetrics() {
+			return new SecurityMetrics(new SimpleMeterRegistry());
+		}
+
+		@Bean
+		JwtTokenService jwtTokenService(EnvConfiguration envConfiguration) {
+			return new JwtTokenService(envConfiguration, new DateConfiguration());
+		}
+
+		@Bean
+		ClientIpResolver clientIpResolver() {
+			ClientIpResolver clientIpResolver = mock(ClientIpResolver.class);
+			when(clientIpResolver.resolve(any())).thenReturn("203.0.113.9");
+			return clientIpResolver;
+		}
+
+		@Bean
+		ClientIpFilter clientIpFilter(ClientIpResolver clientIpResolver, SecurityMetrics securityMetrics) {
+			return new ClientIpFilter(clientIpResolver, securityMetrics);
+		}
+
+		@Bean
+		RateLimitingFilter rateLimitingFilter(ClientIpResolver clientIpResolver, JwtTokenService jwtTokenService,
+											  SecurityMetrics securityMetrics) {
+			RateLimitingService rateLimitingService = mock(RateLimitingService.class);
+			when(rateLimitingService.tryAcquireClient(any(), any(), anyBoolean())).thenReturn(true);
+			when(rateLimitingService.tryAcquireToken(any(), any(), any())).thenReturn(true);
+			return new RateLimitingFilter(rateLimitingService, clientIpResolver, jwtTokenService, securityMetrics,
+					mock(LoggingService.class), mock(RouteRegistry.class));
+		}
+
+		@Bean
+		JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenService jwtTokenService, EnvConfiguration envConfiguration,
+														SecurityMetrics securityMetrics) {
+			UserDaoUtils userDaoUtils = mock(UserDaoUtils.class);
+			when(userDaoUtils.findById(ADMIN_ID)).thenReturn(Optional.of(user(ADMIN_ID, UserRole.ADMIN)));
+			when(userDaoUtils.findById(USER_ID)).thenReturn(Optional.of(user(USER_ID, UserRole.USER)));
+			return new JwtAuthenticationFilter(jwtTokenService, userDaoUtils, mock(PrincipalCache.class),
+					mock(TokenRevocationService.class), envConfiguration, securityMetrics);
+		}
+
+		@Bean
+		ClientRegistrationRepository clientRegistrationRepository() {
+			return new InMemoryClientRegistrationRepository(CommonOAuth2Provider.GOOGLE.getBuilder("google")
+					.clientId("client-id")
+					.clientSecret("client-secret")
+					.build());
+		}
+
+		@Bean
+		HeavyHitterStubController heavyHitterStubController() {
+			return new HeavyHitterStubController();
+		}
+
+	}
+
+	@RestController
+	static class HeavyHitterStubController {
+
+		@GetMapping(HEAVY_HITTERS_PATH)
+		String heavyHitters() {
+			return "{}";
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientIpResolverBenchmark {
+
+	private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+	@Param({"direct", "proxied", "proxiedIpv6"})
+	public String scenario;
+
+	private ClientIpResolver clientIpResolver;
+	private String remoteAddress;
+	private String forwardedFor;
+
+	@Setup
+	public void setUp() {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setTrustedProxyCidrs(List.of("10.0.0.0/8", "172.16.0.0/12", "fc00::/7"));
+		envConfiguration.setDeniedClientCidrs(List.of("198.51.100.0/24", "192.0.2.0/24", "2001:db8:bad::/48"));
+		clientIpResolver = new ClientIpResolver(envConfiguration);
+
+		switch (scenario) {
+			case "direct" -> {
+				remoteAddress = "203.0.113.9";
+				forwardedFor = null;
+			}
+			case "proxied" -> {
+				remoteAddress = "10.0.0.1";
+				forwardedFor = "198.18.0.4, 203.0.113.9, 172.16.4.2, 10.0.0.7";
+			}
+			case "proxiedIpv6" -> {
+				remoteAddress = "fd00::1";
+				forwardedFor = "2001:db8::1, fd00::2";
+			}
+			default -> throw new IllegalStateException("Unknown scenario: " + scenario);
+		}
+	}
+
+	@Benchmark
+	public boolean splitFirstHop() {
+		MockHttpServletRequest request = request();
+		String header = request.getHeader(FORWARDED_FOR_HEADER);
+		String clientIp = header == null ? request.getRemoteAddr() : header.split(",")[0].trim();
+		return clientIp.startsWith("198.51.100.");
+	}
+
+	@Benchmark
+	public boolean trustedProxyWalk() {
+		return clientIpResolver.isDenied(clientIpResolver.resolve(request()));
+	}
+
+	private MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/private/user/me");
+		request.setRemoteAddr(remoteAddress);
+		if (forwardedFor != null) {
+			request.addHeader(FORWARDED_FOR_HEADER, forwardedFor);
+		}
+		return request;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ClientIpResolverBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientIpResolverTest {
+
+	private final ClientIpResolver clientIpResolver = new ClientIpResolver(envConfiguration(
+			List.of("10.0.0.0/8", "fc00::/7"),
+			List.of("198.51.100.0/24", "2001:db8:bad::/48")
+	));
+
+	@Test
+	void resolvesTheClientFromTheForwardedHops() {
+		String[][] cases = {
+				{"203.0.113.9", null, "203.0.113.9"},
+				{"203.0.113.9", "198.51.100.1", "203.0.113.9"},
+				{"10.0.0.1", null, "10.0.0.1"},
+				{"10.0.0.1", "", "10.0.0.1"},
+				{"10.0.0.1", "198.51.100.1", "198.51.100.1"},
+				{"10.0.0.1", "1.1.1.1, 198.51.100.1", "198.51.100.1"},
+				{"10.0.0.1", "198.51.100.1, 10.0.0.7", "198.51.100.1"},
+				{"10.0.0.1", " 198.51.100.1 ,10.0.0.7 , 10.0.0.8", "198.51.100.1"},
+				{"10.0.0.1", "10.0.0.9, 10.0.0.7", "10.0.0.9"},
+				{"10.0.0.1", "garbage, 10.0.0.7", "10.0.0.7"},
+				{"10.0.0.1", "garbage", "10.0.0.1"},
+				{"10.0.0.1", "198.51.100.1,,", "198.51.100.1"},
+				{"fd00::1", "2001:db8::1, fd00::2", "2001:db8::1"},
+				{"fd00::1", "[2001:db8::5]", "[2001:db8::5]"},
+		};
+
+		for (String[] testCase : cases) {
+			MockHttpServletRequest request = request(testCase[0], testCase[1]);
+			assertEquals(testCase[2], clientIpResolver.resolve(request), String.join(" | ", testCase[0], String.valueOf(testCase[1])));
+		}
+	}
+
+	@Test
+	void cachesTheResolvedAddressOnTheRequest() {
+		MockHttpServletRequest request = request("10.0.0.1", "198.51.100.1");
+
+		assertEquals("198.51.100.1", clientIpResolver.resolve(request));
+		request.setRemoteAddr("203.0.113.9");
+		assertEquals("198.51.100.1", clientIpResolver.resolve(request));
+	}
+
+	@Test
+	void deniesAddressesInTheDenyList() {
+		assertTrue(clientIpResolver.isDenied("198.51.100.77"));
+		assertTrue(clientIpResolver.isDenied("2001:db8:bad:1::1"));
+		assertFalse(clientIpResolver.isDenied("198.51.101.1"));
+		assertFalse(clientIpResolver.isDenied("2001:db8:bae::1"));
+		assertFalse(clientIpResolver.isDenied("unknown"));
+	}
+
+	@Test
+	void deniesNothingWithAnEmptyDenyList() {
+		ClientIpResolver permissiveResolver = new ClientIpResolver(envConfiguration(List.of(), List.of()));
+
+		assertFalse(permissiveResolver.isDenied("198.51.100.77"));
+		assertEquals("203.0.113.9", permissiveResolver.resolve(request("203.0.113.9", "198.51.100.1")));
+	}
+
+	private static MockHttpServletRequest request(String remoteAddress, String forwardedFor) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRemoteAddr(remoteAddress);
+		if (forwardedFor != null) {
+			request.addHeader("X-Forwarded-For", forwardedFor);
+		}
+		return request;
+	}
+
+	private static EnvConfiguration envConfiguration(List<String> trustedProxyCidrs, List<String> deniedClientCidrs) {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setTrustedProxyCidrs(trustedProxyCidrs);
+		envConfiguration.setDeniedClientCidrs(deniedClientCidrs);
+		return envConfiguration;
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.novus.api_gateway.service;
+
+import com.novus.api_gateway.configuration.DateConfiguration;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.shared_models.common.User.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+	private static final String JWT_SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+	private static final String MALFORMED_TOKEN = "Bearer not-a-token";
+
+	private EnvConfiguration envConfiguration;
+	private JwtTokenService jwtTokenService;
+	private String authorizationHeader;
+
+	@Setup
+	public void setUp() {
+		envConfiguration = new EnvConfiguration();
+		envConfiguration.setJwtSecret(JWT_SECRET);
+
+		jwtTokenService = new JwtTokenService(envConfiguration, new DateConfiguration());
+		jwtTokenService.initializeSigningKey();
+		authorizationHeader = "Bearer " + jwtTokenService.generateToken(User.builder().id("6650b7e2c1a4f9a3d2e1b0c9").build());
+	}
+
+	@Benchmark
+	public String perRequestParserAndDoubleVerification() {
+		String token = request(authorizationHeader).getHeader(HttpHeaders.AUTHORIZATION).substring(7);
+		Jwts.parserBuilder().setSigningKey(rebuildSigningKey()).build().parseClaimsJws(token);
+		return Jwts.parserBuilder().setSigningKey(rebuildSigningKey()).build().parseClaimsJws(token).getBody().getSubject();
+	}
+
+	@Benchmark
+	public String cachedParserAndSingleVerification() {
+		MockHttpServletRequest request = request(authorizationHeader);
+		jwtTokenService.resolveVerifiedToken(request);
+		return jwtTokenService.resolveVerifiedToken(request).getUserId();
+	}
+
+	@Benchmark
+	public boolean perRequestParserOnMalformedToken() {
+		String token = request(MALFORMED_TOKEN).getHeader(HttpHeaders.AUTHORIZATION).substring(7);
+		try {
+			Jwts.parserBuilder().setSigningKey(rebuildSigningKey()).build().parseClaimsJws(token);
+			return true;
+		} catch (Exception exception) {
+			return false;
+		}
+	}
+
+	@Benchmark
+	public VerifiedToken shapeCheckOnMalformedToken() {
+		return jwtTokenService.resolveVerifiedToken(request(MALFORMED_TOKEN));
+	}
+
+	private Key rebuildSigningKey() {
+		return Keys.hmacShaKeyFor(envConfiguration.getJwtSecret().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static MockHttpServletRequest request(String authorizationHeader) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/private/user/me");
+		request.addHeader(HttpHeaders.AUTHORIZATION, authorizationHeader);
+		return request;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.novus.api_gateway.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.configuration.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KafkaEventSerializerBenchmark {
+
+	@Param({"map-service", "user-service", "authentication-service"})
+	public String topic;
+
+	private ObjectMapper objectMapper;
+	private KafkaEventSerializer jsonSerializer;
+	private KafkaEventSerializer smileSerializer;
+	private Map<String, Object> envelope;
+	private Map<String, Object> body;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		objectMapper = new JacksonConfig().objectMapper();
+		jsonSerializer = serializer("json");
+		smileSerializer = serializer("smile");
+
+		Map<String, String> request = request(topic);
+		envelope = new LinkedHashMap<>(body(request));
+		envelope.put("ipAddress", "203.0.113.9");
+		envelope.put("timeStamp", "1790000000000");
+		body = body(request);
+
+		System.out.printf("%n%s payload bytes | string envelope: %d | json body: %d | smile body: %d%n", topic,
+				objectMapper.writeValueAsString(envelope).getBytes(StandardCharsets.UTF_8).length,
+				jsonSerializer.serialize(body).length,
+				smileSerializer.serialize(body).length);
+	}
+
+	@Benchmark
+	public byte[] stringEnvelope() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(envelope).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public byte[] jsonBody() throws JsonProcessingException {
+		return jsonSerializer.serialize(body);
+	}
+
+	@Benchmark
+	public byte[] smileBody() throws JsonProcessingException {
+		return smileSerializer.serialize(body);
+	}
+
+	private KafkaEventSerializer serializer(String format) {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setKafkaEventFormat(format);
+		return new KafkaEventSerializer(objectMapper, envConfiguration);
+	}
+
+	private static Map<String, String> request(String topic) {
+		return switch (topic) {
+			case "map-service" -> Map.of(
+					"startLatitude", "48.8566",
+					"startLongitude", "2.3522",
+					"endLatitude", "45.7640",
+					"endLongitude", "4.8357",
+					"distance", "465230",
+					"duration", "16740");
+			case "user-service" -> Map.of(
+					"userId", "6650b7e2c1a4f9a3d2e1b0c9",
+					"latitude", "48.8566",
+					"longitude", "2.3522");
+			case "authentication-service" -> Map.of(
+					"email", "driver@supmap.test",
+					"password", "not-a-real-password");
+			default -> throw new IllegalStateException("Unknown topic: " + topic);
+		};
+	}
+
+	private static Map<String, Object> body(Map<String, String> request) {
+		Map<String, Object> principal = new LinkedHashMap<>();
+		principal.put("id", "6650b7e2c1a4f9a3d2e1b0c9");
+		principal.put("username", "driver");
+		principal.put("role", "USER");
+
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("authenticatedUser", principal);
+		body.put("request", request);
+		return body;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(KafkaEventSerializerBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
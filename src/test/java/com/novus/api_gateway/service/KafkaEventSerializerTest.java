@@ -0,0 +1,167 @@
+package com.novus.api_gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.novus.api_gateway.configuration.EnvConfiguration;
+import com.novus.api_gateway.configuration.JacksonConfig;
+import com.novus.api_gateway.utils.EventHeaders;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KafkaEventSerializerTest {
+
+	private static final List<EventShape> EVENT_SHAPES = List.of(
+			new EventShape("map-service", "saveNewRouteRecalculation", Map.of(
+					"startLatitude", "48.8566",
+					"startLongitude", "2.3522",
+					"endLatitude", "45.7640",
+					"endLongitude", "4.8357",
+					"distance", "465230",
+					"duration", "16740")),
+			new EventShape("user-service", "updateUserLocation", Map.of(
+					"userId", "6650b7e2c1a4f9a3d2e1b0c9",
+					"latitude", "48.8566",
+					"longitude", "2.3522")),
+			new EventShape("authentication-service", "login", Map.of(
+					"email", "driver@supmap.test",
+					"password", "not-a-real-password"))
+	);
+
+	private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+	@Test
+	void smileBodiesDecodeToTheSameTreeAsJsonBodies() throws Exception {
+		KafkaEventSerializer jsonSerializer = serializer("json");
+		KafkaEventSerializer smileSerializer = serializer("smile");
+		ObjectMapper smileReader = objectMapper.copyWith(new SmileFactory());
+
+		for (EventShape shape : EVENT_SHAPES) {
+			Map<String, Object> body = shape.body();
+
+			byte[] json = jsonSerializer.serialize(body);
+			byte[] smile = smileSerializer.serialize(body);
+
+			assertEquals(objectMapper.readTree(json), smileReader.readTree(smile), shape.topic());
+			assertTrue(smile.length < json.length, shape.topic() + ": " + smile.length + " >= " + json.length);
+		}
+	}
+
+	@Test
+	void smileMapperKeepsTheApplicationDateSettings() throws Exception {
+		Instant timestamp = Instant.parse("2026-10-17T12:00:00Z");
+
+		JsonNode decoded = objectMapper.copyWith(new SmileFactory())
+				.readTree(serializer("smile").serialize(Map.of("timestamp", timestamp)));
+
+		assertEquals("2026-10-17T12:00:00Z", decoded.get("timestamp").asText());
+	}
+
+	@Test
+	void contentTypeFollowsTheConfiguredFormat() {
+		assertEquals("application/json", new String(serializer("json").getContentType(), StandardCharsets.UTF_8));
+		assertEquals("application/x-jackson-smile", new String(serializer("smile").getContentType(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void recordsMatchTheLocalSchemaStandIn() throws Exception {
+		KafkaEventSerializer smileSerializer = serializer("smile");
+		SchemaStandIn schemaStandIn = new SchemaStandIn(objectMapper.copyWith(new SmileFactory()));
+
+		for (EventShape shape : EVENT_SHAPES) {
+			Headers headers = new RecordHeaders();
+			headers.add(EventHeaders.CONTENT_TYPE, smileSerializer.getContentType());
+			EventHeaders.write(headers, EventHeaders.HEADER_METADATA_SCHEMA_VERSION, shape.operation(),
+					"6650b7e2c1a4f9a3d2e1b0c9", "203.0.113.9", 1_790_000_000_000L);
+
+			JsonNode body = schemaStandIn.decode(headers, smileSerializer.serialize(shape.body()));
+
+			assertEquals(shape.operation(), schemaStandIn.operation(headers));
+			assertEquals(1_790_000_000_000L, schemaStandIn.timestamp(headers));
+			assertEquals(objectMapper.valueToTree(shape.request()), body.get("request"), shape.topic());
+		}
+	}
+
+	@Test
+	void anonymousEventsCarryNoUserIdHeader() {
+		Headers headers = new RecordHeaders();
+		EventHeaders.write(headers, EventHeaders.HEADER_METADATA_SCHEMA_VERSION, "login", null, "2001:db8::1", 1L);
+
+		assertNull(headers.lastHeader(EventHeaders.USER_ID));
+		assertEquals(16, headers.lastHeader(EventHeaders.IP_ADDRESS).value().length);
+	}
+
+	private KafkaEventSerializer serializer(String format) {
+		EnvConfiguration envConfiguration = new EnvConfiguration();
+		envConfiguration.setKafkaEventFormat(format);
+		return new KafkaEventSerializer(objectMapper, envConfiguration);
+	}
+
+	private record EventShape(String topic, String operation, Map<String, String> request) {
+
+		Map<String, Object> body() {
+			Map<String, Object> principal = new LinkedHashMap<>();
+			principal.put("id", "6650b7e2c1a4f9a3d2e1b0c9");
+			principal.put("username", "driver");
+			principal.put("role", "USER");
+
+			Map<String, Object> body = new LinkedHashMap<>();
+			body.put("authenticatedUser", principal);
+			body.put("request", request);
+			return body;
+		}
+
+	}
+
+	private record SchemaStandIn(ObjectMapper smileReader) {
+
+		private static final Map<Integer, Set<String>> BODY_FIELDS_BY_VERSION = Map.of(
+				EventHeaders.ENVELOPE_SCHEMA_VERSION, Set.of("authenticatedUser", "ipAddress", "request", "timeStamp"),
+				EventHeaders.HEADER_METADATA_SCHEMA_VERSION, Set.of("authenticatedUser", "request")
+		);
+
+		JsonNode decode(Headers headers, byte[] value) throws Exception {
+			int schemaVersion = ByteBuffer.wrap(header(headers, EventHeaders.SCHEMA_VERSION)).getInt();
+			Set<String> allowedFields = BODY_FIELDS_BY_VERSION.get(schemaVersion);
+			assertTrue(allowedFields != null, "unknown schema version " + schemaVersion);
+
+			String contentType = new String(header(headers, EventHeaders.CONTENT_TYPE), StandardCharsets.UTF_8);
+			assertEquals("application/x-jackson-smile", contentType);
+
+			JsonNode body = smileReader.readTree(value);
+			body.fieldNames().forEachRemaining(field -> assertTrue(allowedFields.contains(field),
+					"field " + field + " is not part of schema version " + schemaVersion));
+			return body;
+		}
+
+		String operation(Headers headers) {
+			return new String(header(headers, EventHeaders.OPERATION), StandardCharsets.UTF_8);
+		}
+
+		long timestamp(Headers headers) {
+			return ByteBuffer.wrap(header(headers, EventHeaders.TIMESTAMP)).getLong();
+		}
+
+		private static byte[] header(Headers headers, String key) {
+			Header header = headers.lastHeader(key);
+			assertTrue(header != null, "missing header " + key);
+			return header.value();
+		}
+
+	}
+
+}
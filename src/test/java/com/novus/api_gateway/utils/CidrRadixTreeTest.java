@@ -0,0 +1,84 @@
+package com.novus.api_gateway.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CidrRadixTreeTest {
+
+	private static final CidrRadixTree TREE = CidrRadixTree.of(List.of(
+			"10.0.0.0/8",
+			"172.16.0.0/12",
+			"192.168.1.0/24",
+			"192.168.1.128/25",
+			"203.0.113.7",
+			"2001:db8::/32",
+			"fc00::/7",
+			"::1/128"
+	));
+
+	@Test
+	void matchesAddressesInsideTheConfiguredRanges() {
+		for (String address : List.of(
+				"10.0.0.0", "10.255.255.255", "10.12.34.56",
+				"172.16.0.1", "172.31.255.255",
+				"192.168.1.0", "192.168.1.127", "192.168.1.200",
+				"203.0.113.7",
+				"2001:db8::1", "2001:db8:ffff:ffff:ffff:ffff:ffff:ffff", "[2001:db8::42]",
+				"fc00::1", "fdff:ffff::1",
+				"::1", "::ffff:10.1.2.3", " 10.0.0.1 ")) {
+			assertTrue(TREE.contains(address, 0, address.length()), address);
+		}
+	}
+
+	@Test
+	void rejectsAddressesOutsideTheConfiguredRanges() {
+		for (String address : List.of(
+				"9.255.255.255", "11.0.0.0",
+				"172.15.255.255", "172.32.0.0",
+				"192.168.0.255", "192.168.2.0",
+				"203.0.113.6", "203.0.113.8",
+				"2001:db9::1", "2001:db7:ffff::1",
+				"fe00::1", "::2", "::",
+				"not-an-ip", "256.1.1.1", "1.2.3", "")) {
+			assertFalse(TREE.contains(address, 0, address.length()), address);
+		}
+	}
+
+	@Test
+	void matchesAnAddressInsideALargerString() {
+		String forwardedFor = "198.51.100.1, 10.0.0.5";
+
+		assertFalse(TREE.contains(forwardedFor, 0, 12));
+		assertTrue(TREE.contains(forwardedFor, 14, forwardedFor.length()));
+	}
+
+	@Test
+	void ignoresBlankEntriesAndRejectsInvalidOnes() {
+		assertTrue(CidrRadixTree.of(List.of(" ", "")).isEmpty());
+		assertTrue(CidrRadixTree.of(null).isEmpty());
+		assertEquals(8, TREE.size());
+
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.of(List.of("10.0.0.0/33")));
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.of(List.of("2001:db8::/129")));
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.of(List.of("10.0.0.0/abc")));
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.of(List.of("example.com/8")));
+	}
+
+	@Test
+	void catchAllPrefixesMatchTheirWholeFamily() {
+		CidrRadixTree ipv4 = CidrRadixTree.of(List.of("0.0.0.0/0"));
+		CidrRadixTree ipv6 = CidrRadixTree.of(List.of("::/0"));
+
+		assertTrue(ipv4.contains("255.255.255.255", 0, 15));
+		assertFalse(ipv4.contains("2001:db8::1", 0, 11));
+		assertTrue(ipv6.contains("2001:db8::1", 0, 11));
+		assertTrue(ipv6.contains("8.8.8.8", 0, 7));
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.novus.api_gateway.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterRateLimiterTest {
+
+	private static final long WINDOW_DURATION = 120000;
+	private static final long EMISSION_INTERVAL = 1000;
+	private static final long WINDOW = 10;
+	private static final long WINDOW_START = WINDOW * WINDOW_DURATION;
+	private static final long KEY = 42;
+
+	private final InMemoryRateLimitBackend backend = new InMemoryRateLimitBackend();
+	private final ClusterRateLimiter replicaA = new ClusterRateLimiter(backend, 64, WINDOW_DURATION);
+	private final ClusterRateLimiter replicaB = new ClusterRateLimiter(backend, 64, WINDOW_DURATION);
+
+	@Test
+	void sharesTheWindowBudgetAcrossReplicas() {
+		assertEquals(80, acquireUntilRejected(replicaA, WINDOW_START, 80));
+		assertEquals(1, replicaA.flush());
+
+		assertTrue(replicaB.tryAcquire(KEY, WINDOW_START, EMISSION_INTERVAL, 1));
+		replicaB.flush();
+		assertEquals(39, acquireUntilRejected(replicaB, WINDOW_START, 120));
+		replicaB.flush();
+
+		assertTrue(replicaA.tryAcquire(KEY, WINDOW_START, EMISSION_INTERVAL, 1));
+		replicaA.flush();
+		assertFalse(replicaA.tryAcquire(KEY, WINDOW_START, EMISSION_INTERVAL, 1));
+
+		assertArrayEquals(new long[]{121}, sharedTotals(WINDOW));
+	}
+
+	@Test
+	void weighsThePreviousWindowAfterARollover() {
+		assertEquals(120, acquireUntilRejected(replicaA, WINDOW_START, 200));
+		replicaA.flush();
+
+		long halfwayThroughNextWindow = WINDOW_START + WINDOW_DURATION + WINDOW_DURATION / 2;
+		assertEquals(60, acquireUntilRejected(replicaA, halfwayThroughNextWindow, 200));
+
+		long startOfTheWindowAfter = WINDOW_START + 2 * WINDOW_DURATION;
+		assertEquals(60, acquireUntilRejected(replicaA, startOfTheWindowAfter, 200));
+	}
+
+	@Test
+	void flushesCountsLeftUnflushedWhenTheWindowRolledOver() {
+		assertEquals(100, acquireUntilRejected(replicaA, WINDOW_START, 100));
+
+		long halfwayThroughNextWindow = WINDOW_START + WINDOW_DURATION + WINDOW_DURATION / 2;
+		assertEquals(70, acquireUntilRejected(replicaA, halfwayThroughNextWindow, 200));
+		assertEquals(2, replicaA.flush());
+
+		assertArrayEquals(new long[]{100}, sharedTotals(WINDOW));
+		assertArrayEquals(new long[]{70}, sharedTotals(WINDOW + 1));
+
+		assertTrue(replicaB.tryAcquire(KEY, halfwayThroughNextWindow, EMISSION_INTERVAL, 1));
+		replicaB.flush();
+		assertEquals(49, acquireUntilRejected(replicaB, halfwayThroughNextWindow, 200));
+	}
+
+	private static int acquireUntilRejected(ClusterRateLimiter limiter, long now, int attempts) {
+		int admitted = 0;
+		while (admitted < attempts && limiter.tryAcquire(KEY, now, EMISSION_INTERVAL, 1)) {
+			admitted++;
+		}
+		return admitted;
+	}
+
+	private long[] sharedTotals(long window) {
+		return backend.addAndGet(new long[]{KEY}, new long[]{window}, new long[]{0}, 1, WINDOW_DURATION);
+	}
+
+}
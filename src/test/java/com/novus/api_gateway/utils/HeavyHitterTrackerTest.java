@@ -0,0 +1,82 @@
+package com.novus.api_gateway.utils;
+
+import com.novus.api_gateway.utils.HeavyHitterTracker.HeavyHitter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHitterTrackerTest {
+
+	private static final int THREADS = 8;
+
+	@Test
+	void ranksTheHeaviestKeysAboveTheNoise() {
+		HeavyHitterTracker tracker = new HeavyHitterTracker(4096, 3);
+
+		for (int round = 0; round < 100; round++) {
+			tracker.record(1, "alpha", 5);
+			tracker.record(2, "beta", 3);
+			tracker.record(3, "gamma", 2);
+			for (long noise = 0; noise < 50; noise++) {
+				tracker.record(1000 + round * 50 + noise, "noise", 1);
+			}
+		}
+
+		List<HeavyHitter> topHitters = tracker.topHitters();
+		assertEquals(List.of("alpha", "beta", "gamma"), topHitters.stream().map(HeavyHitter::label).toList());
+		assertTrue(topHitters.get(0).estimatedCount() >= 500);
+		assertEquals(tracker.countAtRank(1), topHitters.get(0).estimatedCount());
+	}
+
+	@Test
+	void keepsCountingTopKeysRecordedConcurrently() throws Exception {
+		HeavyHitterTracker tracker = new HeavyHitterTracker(4096, 4);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++) {
+				long noiseBase = 1_000_000L * (thread + 1);
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < 10000; i++) {
+						tracker.record(1, "hot", 1);
+						tracker.record(noiseBase + i, "noise", 1);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		HeavyHitter hottest = tracker.topHitters().get(0);
+		assertEquals("hot", hottest.label());
+		assertTrue(hottest.estimatedCount() >= THREADS * 10000);
+	}
+
+	@Test
+	void halvesCountsOnDecayAndDropsEmptiedKeys() {
+		HeavyHitterTracker tracker = new HeavyHitterTracker(4096, 2);
+		tracker.record(1, "alpha", 8);
+		tracker.record(2, "beta", 1);
+
+		tracker.decay();
+
+		assertEquals(List.of(new HeavyHitter("alpha", 4)), tracker.topHitters());
+		assertEquals(0, tracker.countAtRank(2));
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.novus.api_gateway.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocationCoalescingTableTest {
+
+	private static final long NOW = 1_000_000;
+	private static final double MIN_DISTANCE_METERS = 50;
+	private static final long WINDOW = 5000;
+	private static final long MAX_INTERVAL = 6 * WINDOW;
+	private static final long EVICT_AFTER = 60 * WINDOW;
+
+	@Test
+	void publishesEachPositionOnceUntilItMoves() {
+		LocationCoalescingTable<String> table = new LocationCoalescingTable<>(64);
+		RecordingHandler handler = new RecordingHandler();
+
+		assertTrue(table.update(42, 48.8566, 2.3522, NOW, "driver"));
+		assertEquals(1, flush(table, NOW, handler));
+		assertEquals(0, flush(table, NOW + 1, handler));
+
+		assertTrue(table.update(42, 48.8666, 2.3522, NOW + 2, "driver"));
+		assertEquals(1, flush(table, NOW + 3, handler));
+		assertEquals(List.of(48.8566, 48.8666), handler.latitudes());
+	}
+
+	@Test
+	void resendsThePositionOnTheNextFlushWhenPublishingFailed() {
+		LocationCoalescingTable<String> table = new LocationCoalescingTable<>(64);
+		RecordingHandler handler = new RecordingHandler();
+		assertTrue(table.update(42, 48.8566, 2.3522, NOW, "driver"));
+
+		handler.failing = true;
+		assertEquals(0, flush(table, NOW, handler));
+		assertEquals(1, handler.attempts);
+
+		handler.failing = false;
+		assertEquals(1, flush(table, NOW + 1, handler));
+		assertEquals(List.of(48.8566), handler.latitudes());
+		assertEquals(0, flush(table, NOW + 2, handler));
+	}
+
+	@Test
+	void resendsAMoveWhosePublishFailed() {
+		LocationCoalescingTable<String> table = new LocationCoalescingTable<>(64);
+		RecordingHandler handler = new RecordingHandler();
+		assertTrue(table.update(42, 48.8566, 2.3522, NOW, "driver"));
+		assertEquals(1, flush(table, NOW, handler));
+
+		assertTrue(table.update(42, 48.8666, 2.3522, NOW + 1, "driver"));
+		handler.failing = true;
+		assertEquals(0, flush(table, NOW + 2, handler));
+
+		handler.failing = false;
+		assertEquals(1, flush(table, NOW + 3, handler));
+		assertEquals(List.of(48.8566, 48.8666), handler.latitudes());
+	}
+
+	private static int flush(LocationCoalescingTable<String> table, long now, RecordingHandler handler) {
+		return table.flush(now, MIN_DISTANCE_METERS, WINDOW, MAX_INTERVAL, EVICT_AFTER, false, handler);
+	}
+
+	private static final class RecordingHandler implements LocationCoalescingTable.FlushHandler<String> {
+
+		private final List<Double> latitudes = new ArrayList<>();
+		private boolean failing;
+		private int attempts;
+
+		@Override
+		public boolean publish(String attachment, double latitude, double longitude, long timestamp) {
+			attempts++;
+			if (failing) {
+				return false;
+			}
+			latitudes.add(latitude);
+			return true;
+		}
+
+		List<Double> latitudes() {
+			return latitudes;
+		}
+
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.novus.api_gateway.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitTableBenchmark {
+
+	private static final int TABLE_CAPACITY = 65536;
+	private static final int CLIENTS = 16384;
+	private static final long HOT_KEY = 42;
+	private static final long EMISSION_INTERVAL = 1;
+	private static final long BURST_DURATION = Long.MAX_VALUE / 2;
+	private static final long BLOCK_DURATION = 600000;
+
+	private RateLimitTable table;
+	private long now;
+
+	@Setup
+	public void setUp() {
+		table = new RateLimitTable(TABLE_CAPACITY);
+		now = System.currentTimeMillis();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean sameClient1Thread() {
+		return acquire(HOT_KEY);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean sameClient8Threads() {
+		return acquire(HOT_KEY);
+	}
+
+	@Benchmark
+	@Threads(32)
+	public boolean sameClient32Threads() {
+		return acquire(HOT_KEY);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean distinctClients1Thread() {
+		return acquire(randomClient());
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean distinctClients8Threads() {
+		return acquire(randomClient());
+	}
+
+	@Benchmark
+	@Threads(32)
+	public boolean distinctClients32Threads() {
+		return acquire(randomClient());
+	}
+
+	private boolean acquire(long key) {
+		return table.tryAcquire(key, now, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION);
+	}
+
+	private static long randomClient() {
+		return ThreadLocalRandom.current().nextInt(CLIENTS) + 1L;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RateLimitTableBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,193 @@
+package com.novus.api_gateway.utils;
+
+import com.novus.api_gateway.prometheus.SecurityMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitTableTest {
+
+	private static final long NOW = 1_000_000;
+	private static final long EMISSION_INTERVAL = 1000;
+	private static final long BURST_DURATION = 5000;
+	private static final long BLOCK_DURATION = 60000;
+	private static final int THREADS = 8;
+
+	@Test
+	void admitsTheBurstThenBlocksTheClient() {
+		RateLimitTable table = new RateLimitTable(64);
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(table.tryAcquire(42, NOW, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+		}
+		assertFalse(table.tryAcquire(42, NOW, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+
+		assertFalse(table.tryAcquire(42, NOW + BLOCK_DURATION - 1, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+		assertTrue(table.tryAcquire(42, NOW + BLOCK_DURATION, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+		assertTrue(table.tryAcquire(43, NOW, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+	}
+
+	@Test
+	void refillsOneRequestPerEmissionInterval() {
+		RateLimitTable table = new RateLimitTable(64);
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(table.tryAcquire(42, NOW, EMISSION_INTERVAL, BURST_DURATION, 0));
+		}
+
+		assertFalse(table.tryAcquire(42, NOW + EMISSION_INTERVAL - 1, EMISSION_INTERVAL, BURST_DURATION, 0));
+		assertTrue(table.tryAcquire(42, NOW + EMISSION_INTERVAL, EMISSION_INTERVAL, BURST_DURATION, 0));
+		assertFalse(table.tryAcquire(42, NOW + EMISSION_INTERVAL, EMISSION_INTERVAL, BURST_DURATION, 0));
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(table.tryAcquire(42, NOW + 6 * EMISSION_INTERVAL, EMISSION_INTERVAL, BURST_DURATION, 0));
+		}
+	}
+
+	@Test
+	void evictsALiveClientOnlyWhenTheProbeWindowIsFull() {
+		RateLimitTable table = new RateLimitTable(16);
+		for (long key = 1; key <= 16; key++) {
+			assertTrue(table.tryAcquire(key, NOW, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+		}
+		assertEquals(16, table.occupiedSlots());
+		assertEquals(0, table.evictions());
+
+		assertTrue(table.tryAcquire(17, NOW, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+		assertEquals(16, table.occupiedSlots());
+		assertEquals(1, table.evictions());
+
+		assertTrue(table.tryAcquire(18, NOW + EMISSION_INTERVAL, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION));
+		assertEquals(16, table.occupiedSlots());
+		assertEquals(1, table.evictions());
+		assertEquals(16, table.capacity());
+	}
+
+	@Test
+	void keepsTheHottestClientsWhileFloodedWithMoreClientsThanSlots() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		RateLimitTable table = new RateLimitTable(1024);
+		new SecurityMetrics(meterRegistry).registerRateLimitTableGauges("flood", table);
+
+		int hotClients = 16;
+		int floodClients = 200000;
+		long unlimitedBurst = Long.MAX_VALUE / 4;
+		long hotRequests = 0;
+		for (int i = 1; i <= floodClients; i++) {
+			assertTrue(table.tryAcquire(1_000_000L + i, NOW, EMISSION_INTERVAL, unlimitedBurst, BLOCK_DURATION));
+			if (i % 2 == 0) {
+				for (long hotClient = 1; hotClient <= hotClients; hotClient++) {
+					table.tryAcquire(hotClient, NOW, EMISSION_INTERVAL, unlimitedBurst, BLOCK_DURATION);
+				}
+				hotRequests++;
+			}
+		}
+
+		assertEquals(1024, gauge(meterRegistry, "security.rate_limit.table.capacity"));
+		assertEquals(1024, gauge(meterRegistry, "security.rate_limit.table.occupied"));
+		assertEquals(table.evictions(), gauge(meterRegistry, "security.rate_limit.table.evictions"));
+		assertTrue(table.evictions() >= floodClients - table.capacity());
+
+		for (long hotClient = 1; hotClient <= hotClients; hotClient++) {
+			assertFalse(table.tryAcquire(hotClient, NOW, EMISSION_INTERVAL, hotRequests * EMISSION_INTERVAL, 0),
+					"hot client " + hotClient + " lost its state to an eviction");
+		}
+	}
+
+	@Test
+	void sweepsExpiredClientsAndFreesTheirSlots() {
+		RateLimitTable table = new RateLimitTable(64);
+		table.tryAcquire(1, NOW, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION);
+		table.tryAcquire(2, NOW, 4 * EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION);
+		table.block(3, NOW, BLOCK_DURATION);
+
+		assertEquals(1, table.sweepExpired(NOW + EMISSION_INTERVAL, table.capacity()));
+		assertEquals(2, table.occupiedSlots());
+		assertEquals(2, table.sweepExpired(NOW + BLOCK_DURATION, table.capacity()));
+		assertEquals(0, table.occupiedSlots());
+	}
+
+	@Test
+	void failsOpenWhenConcurrentClaimsLeaveNoSlot() throws Exception {
+		RateLimitTable table = new RateLimitTable(16);
+		int keysPerThread = 20000;
+
+		List<Integer> rejections = runConcurrently(thread -> {
+			int rejected = 0;
+			for (int i = 1; i <= keysPerThread; i++) {
+				long key = (long) thread * keysPerThread + i;
+				if (!table.tryAcquire(key, NOW, EMISSION_INTERVAL, BURST_DURATION, BLOCK_DURATION)) {
+					rejected++;
+				}
+			}
+			return rejected;
+		});
+
+		assertEquals(List.of(0, 0, 0, 0, 0, 0, 0, 0), rejections);
+		assertTrue(table.occupiedSlots() <= table.capacity());
+	}
+
+	@Test
+	void neverAdmitsMoreThanTheBurstUnderConcurrentAcquires() throws Exception {
+		RateLimitTable table = new RateLimitTable(64);
+		long burstDuration = 100 * EMISSION_INTERVAL;
+
+		List<Integer> admissions = runConcurrently(thread -> {
+			int admitted = 0;
+			for (int i = 0; i < 1000; i++) {
+				if (table.tryAcquire(42, NOW, EMISSION_INTERVAL, burstDuration, 0)) {
+					admitted++;
+				}
+			}
+			return admitted;
+		});
+
+		assertEquals(100, admissions.stream().mapToInt(Integer::intValue).sum());
+	}
+
+	private static long gauge(SimpleMeterRegistry meterRegistry, String name) {
+		return (long) meterRegistry.get(name).tag("bucket", "flood").gauge().value();
+	}
+
+	private static List<Integer> runConcurrently(ThreadTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++) {
+				int index = thread;
+				Callable<Integer> callable = () -> {
+					start.await();
+					return task.run(index);
+				};
+				futures.add(executor.submit(callable));
+			}
+			start.countDown();
+
+			List<Integer> results = new ArrayList<>();
+			for (Future<Integer> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface ThreadTask {
+		int run(int thread);
+	}
+
+}
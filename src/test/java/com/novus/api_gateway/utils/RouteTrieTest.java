@@ -0,0 +1,94 @@
+package com.novus.api_gateway.utils;
+
+import com.novus.api_gateway.utils.RouteTrie.Route;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteTrieTest {
+
+	@Test
+	void prefersLiteralsOverVariablesOverCatchAll() {
+		RouteTrie trie = new RouteTrie();
+		trie.add("GET", "/private/user/{id}", "user-service");
+		trie.add("GET", "/private/user/me", "user-service");
+		trie.add(null, "/private/**", "gateway");
+
+		assertEquals("/private/user/me", template(trie.resolve("GET", "/private/user/me")));
+		assertEquals("/private/user/{id}", template(trie.resolve("GET", "/private/user/42")));
+		assertEquals("/private/**", template(trie.resolve("GET", "/private/user/42/history")));
+		assertEquals("/private/**", template(trie.resolve("GET", "/private")));
+	}
+
+	@Test
+	void backtracksWhenTheLiteralBranchDoesNotMatch() {
+		RouteTrie trie = new RouteTrie();
+		trie.add("GET", "/map/alerts/route", "map-service");
+		trie.add("GET", "/map/{resource}/{id}/history", "map-service");
+		trie.add("GET", "/map/{*path}", "map-service");
+
+		assertEquals("/map/{resource}/{id}/history", template(trie.resolve("GET", "/map/alerts/7/history")));
+		assertEquals("/map/{*path}", template(trie.resolve("GET", "/map/alerts/route/extra")));
+		assertEquals("/map/alerts/route", template(trie.resolve("GET", "/map/alerts/route")));
+	}
+
+	@Test
+	void backtracksWhenTheLiteralRouteHasAnotherMethod() {
+		RouteTrie trie = new RouteTrie();
+		trie.add("GET", "/private/user/me", "user-service");
+		trie.add("DELETE", "/private/user/{id}", "user-service");
+
+		assertEquals("/private/user/{id}", template(trie.resolve("DELETE", "/private/user/me")));
+		assertEquals("GET", trie.resolve("GET", "/private/user/me").method());
+	}
+
+	@Test
+	void fallsBackToTheAnyMethodRoute() {
+		RouteTrie trie = new RouteTrie();
+		trie.add("POST", "/auth/login", "authentication-service");
+		trie.add(null, "/auth/login", "gateway");
+
+		assertEquals("authentication-service", trie.resolve("POST", "/auth/login").service());
+		assertEquals(RouteTrie.ANY_METHOD, trie.resolve("GET", "/auth/login").method());
+	}
+
+	@Test
+	void returnsNullWhenNoRouteMatchesTheMethod() {
+		RouteTrie trie = new RouteTrie();
+		trie.add("POST", "/auth/login", "authentication-service");
+		trie.add("PUT", "/private/user/location", "user-service");
+
+		assertNull(trie.resolve("GET", "/auth/login"));
+		assertNull(trie.resolve("DELETE", "/private/user/location"));
+	}
+
+	@Test
+	void returnsNullForUnknownOrMalformedPaths() {
+		RouteTrie trie = new RouteTrie();
+		trie.add("GET", "/private/user/{id}", "user-service");
+
+		assertNull(trie.resolve("GET", "/private/user"));
+		assertNull(trie.resolve("GET", "/private/user/"));
+		assertNull(trie.resolve("GET", "/public/user/42"));
+		assertNull(trie.resolve("GET", "private/user/42"));
+		assertNull(trie.resolve("GET", ""));
+		assertNull(trie.resolve("GET", null));
+	}
+
+	@Test
+	void registersEachMethodAndTemplateOnce() {
+		RouteTrie trie = new RouteTrie();
+		Route first = trie.add("GET", "/private/user/{id}", "user-service");
+		Route second = trie.add("GET", "/private/user/{id}", "user-service");
+
+		assertEquals(first, second);
+		assertEquals(1, trie.routes().size());
+		assertEquals("GET /private/user/{id}", first.key());
+	}
+
+	private static String template(Route route) {
+		return route == null ? null : route.template();
+	}
+
+}
@@ -0,0 +1,184 @@
+package com.novus.api_gateway.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedSpoolTest {
+
+	private static final int SEGMENT_SIZE = 1024;
+
+	@TempDir
+	Path spoolDirectory;
+
+	@Test
+	void replaysSpooledEventsInOrderOnceTheBrokerIsBack() {
+		StandInBroker broker = new StandInBroker();
+		SegmentedSpool spool = new SegmentedSpool(spoolDirectory, SEGMENT_SIZE, 16 * SEGMENT_SIZE, false);
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(spool.append(event(i), i));
+		}
+
+		assertEquals(0, spool.replay(1000, broker::accept));
+		assertEquals(100, spool.pendingRecords());
+		assertEquals(0, spool.oldestPendingTimestamp());
+
+		broker.start();
+		assertEquals(40, spool.replay(40, broker::accept));
+		broker.stop();
+		assertEquals(0, spool.replay(1000, broker::accept));
+
+		broker.start();
+		assertEquals(60, spool.replay(1000, broker::accept));
+
+		assertFalse(spool.hasPending());
+		assertEquals(expectedEvents(100), broker.received());
+		spool.close();
+	}
+
+	@Test
+	void resumesFromTheCheckpointAfterAReopen() {
+		StandInBroker broker = new StandInBroker();
+		broker.start();
+
+		SegmentedSpool spool = new SegmentedSpool(spoolDirectory, SEGMENT_SIZE, 16 * SEGMENT_SIZE, false);
+		for (int i = 0; i < 50; i++) {
+			spool.append(event(i), i);
+		}
+		spool.replay(20, broker::accept);
+		spool.close();
+
+		SegmentedSpool reopened = new SegmentedSpool(spoolDirectory, SEGMENT_SIZE, 16 * SEGMENT_SIZE, false);
+		assertEquals(30, reopened.pendingRecords());
+		reopened.replay(1000, broker::accept);
+
+		assertEquals(expectedEvents(50), broker.received());
+		reopened.close();
+	}
+
+	@Test
+	void commitsOnlyTheAcknowledgedPrefixOfABatch() {
+		StandInBroker broker = new StandInBroker();
+		SegmentedSpool spool = new SegmentedSpool(spoolDirectory, SEGMENT_SIZE, 16 * SEGMENT_SIZE, false);
+
+		for (int i = 0; i < 150; i++) {
+			assertTrue(spool.append(event(i), i));
+		}
+
+		assertEquals(0, spool.replayBatch(100, payloads -> 0));
+		assertEquals(150, spool.pendingRecords());
+
+		broker.start();
+		assertEquals(30, spool.replayBatch(100, payloads -> broker.acceptPrefix(payloads, 30)));
+		assertEquals(120, spool.pendingRecords());
+		assertEquals(30, spool.oldestPendingTimestamp());
+
+		assertEquals(100, spool.replayBatch(100, payloads -> broker.acceptPrefix(payloads, payloads.size())));
+		assertEquals(20, spool.replayBatch(100, payloads -> broker.acceptPrefix(payloads, payloads.size())));
+		assertEquals(0, spool.replayBatch(100, payloads -> broker.acceptPrefix(payloads, payloads.size())));
+
+		assertFalse(spool.hasPending());
+		assertEquals(expectedEvents(150), broker.received());
+		spool.close();
+	}
+
+	@Test
+	void rejectsOrEvictsOnceTheSizeCapIsReached() {
+		SegmentedSpool rejecting = new SegmentedSpool(spoolDirectory.resolve("rejecting"), SEGMENT_SIZE, 2 * SEGMENT_SIZE, false);
+		SegmentedSpool evicting = new SegmentedSpool(spoolDirectory.resolve("evicting"), SEGMENT_SIZE, 2 * SEGMENT_SIZE, true);
+
+		int accepted = 0;
+		for (int i = 0; i < 200; i++) {
+			if (rejecting.append(event(i), i)) {
+				accepted++;
+			}
+			assertTrue(evicting.append(event(i), i));
+		}
+
+		assertEquals(accepted, rejecting.pendingRecords());
+		assertTrue(accepted < 200);
+		assertEquals(200, evicting.pendingRecords() + evicting.evictedRecords());
+		assertTrue(evicting.oldestPendingTimestamp() > 0);
+
+		rejecting.close();
+		evicting.close();
+	}
+
+	@Test
+	void rejectsAppendsOnceClosedAndKeepsThemForTheNextOpen() {
+		StandInBroker broker = new StandInBroker();
+		SegmentedSpool spool = new SegmentedSpool(spoolDirectory, SEGMENT_SIZE, 16 * SEGMENT_SIZE, false);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(spool.append(event(i), i));
+		}
+		spool.close();
+
+		assertFalse(spool.append(event(10), 10));
+		spool.force();
+		spool.close();
+		broker.start();
+		assertEquals(0, spool.replay(1000, broker::accept));
+		assertEquals(-1, spool.oldestPendingTimestamp());
+
+		SegmentedSpool reopened = new SegmentedSpool(spoolDirectory, SEGMENT_SIZE, 16 * SEGMENT_SIZE, false);
+		assertEquals(10, reopened.replay(1000, broker::accept));
+		assertEquals(expectedEvents(10), broker.received());
+		reopened.close();
+	}
+
+	private static byte[] event(int index) {
+		return ("event-" + index).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static List<String> expectedEvents(int count) {
+		List<String> events = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			events.add("event-" + i);
+		}
+		return events;
+	}
+
+	private static final class StandInBroker {
+
+		private final List<String> received = new ArrayList<>();
+		private boolean running;
+
+		void start() {
+			running = true;
+		}
+
+		void stop() {
+			running = false;
+		}
+
+		boolean accept(byte[] payload, long timestamp) {
+			if (!running) {
+				return false;
+			}
+			received.add(new String(payload, StandardCharsets.UTF_8));
+			return true;
+		}
+
+		int acceptPrefix(List<byte[]> payloads, int count) {
+			for (int i = 0; i < count; i++) {
+				accept(payloads.get(i), 0);
+			}
+			return count;
+		}
+
+		List<String> received() {
+			return received;
+		}
+
+	}
+
+}